@@ -0,0 +1,35 @@
+package com.moodify;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.ArrayList;
+import java.util.List;
+
+// Starts the application (without the web server) for the database benchmarks, always against the
+// throwaway database of TestDatabase and never against spring.datasource.url of application.properties.
+// That is an embedded PostgreSQL unless MOODIFY_TEST_DB_URL points at a server; the environment variable
+// reaches the forked benchmark JVMs, a -Dmoodify.test.db.url system property only via -jvmArgsAppend.
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    // settings are extra name=value properties; like the defaults below they override application.properties
+    public static ConfigurableApplicationContext start(String... settings) {
+        TestDatabase database = TestDatabase.get();
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + database.url(),
+                "--spring.datasource.username=" + database.username(),
+                "--spring.datasource.password=" + database.password(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.springframework.security=WARN",
+                "--moodify.app.counters.reconcileOnStartup=false"));
+        for (String setting : settings) {
+            args.add("--" + setting);
+        }
+        return new SpringApplicationBuilder(MoodifyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,254 @@
+package com.moodify.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moodify.seed.ZipfSampler;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Closed-loop load driver for a running Moodify instance, seeded with DatasetSeeder.
+//   mvn -Pbenchmark test-compile exec:exec@load-test -Dload.args="--durationSeconds=60 --concurrency=64"
+//
+// Each of `concurrency` virtual threads logs in as a seeded user and replays a weighted mix of
+// feed reads, post reads, like/unlike and comments, picking posts by Zipf rank so hot posts get
+// most of the traffic. After the warm-up it records every request and finally prints throughput
+// and latency percentiles per endpoint.
+//
+// Options (--name=value): baseUrl, durationSeconds, warmupSeconds, concurrency, users,
+// usernamePrefix, password, mix (e.g. feed:60,post:25,like:10,comment:5), feedPages, zipfExponent.
+public final class LoadDriver {
+
+    private static final String FEED = "GET /api/posts";
+    private static final String POST = "GET /api/posts/{postId}";
+    private static final String LIKE = "POST /api/posts/{postId}/likes";
+    private static final String UNLIKE = "DELETE /api/posts/{postId}/likes";
+    private static final String COMMENT = "POST /api/posts/{postId}/comments";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    private final String baseUrl;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int concurrency;
+    private final int users;
+    private final String usernamePrefix;
+    private final String password;
+    private final Map<String, Integer> mix;
+    private final int feedPages;
+    private final double zipfExponent;
+
+    private List<Long> postIds;
+    private ZipfSampler postSampler;
+    private volatile boolean recording;
+
+    private LoadDriver(Map<String, String> options) {
+        baseUrl = options.getOrDefault("baseUrl", "http://localhost:8080");
+        durationSeconds = Integer.parseInt(options.getOrDefault("durationSeconds", "60"));
+        warmupSeconds = Integer.parseInt(options.getOrDefault("warmupSeconds", "10"));
+        concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        users = Integer.parseInt(options.getOrDefault("users", "100"));
+        usernamePrefix = options.getOrDefault("usernamePrefix", "seed-user-");
+        password = options.getOrDefault("password", "password");
+        mix = parseMix(options.getOrDefault("mix", "feed:60,post:25,like:10,comment:5"));
+        feedPages = Integer.parseInt(options.getOrDefault("feedPages", "20"));
+        zipfExponent = Double.parseDouble(options.getOrDefault("zipfExponent", "1.1"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadDriver(options).run();
+    }
+
+    private void run() throws Exception {
+        postIds = loadPostIds();
+        postSampler = new ZipfSampler(postIds.size(), zipfExponent);
+        List<String> tokens = logIn();
+        System.out.printf("Driving %s with %d workers for %ds (+%ds warm-up), mix %s, %d posts, %d users%n",
+                baseUrl, concurrency, durationSeconds, warmupSeconds, mix, postIds.size(), tokens.size());
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                String token = tokens.get(i % tokens.size());
+                workers.submit(() -> work(token, end));
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+            recording = true;
+        }
+        report();
+    }
+
+    private void work(String token, long end) {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < end) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long postId = postIds.get(postSampler.sample(random));
+            int pick = random.nextInt(totalWeight);
+            String operation = null;
+            for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    operation = entry.getKey();
+                    break;
+                }
+            }
+            switch (operation) {
+                case "feed" -> send(FEED, get("/api/posts?page=" + random.nextInt(Math.min(feedPages, 5)) + "&size=12", token));
+                case "post" -> send(POST, get("/api/posts/" + postId, token));
+                case "like" -> {
+                    if (random.nextBoolean()) {
+                        send(LIKE, request("/api/posts/" + postId + "/likes", token).POST(HttpRequest.BodyPublishers.noBody()));
+                    } else {
+                        send(UNLIKE, request("/api/posts/" + postId + "/likes", token).DELETE());
+                    }
+                }
+                case "comment" -> send(COMMENT, request("/api/posts/" + postId + "/comments", token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"Load test comment\"}")));
+                default -> throw new IllegalArgumentException("Unknown operation in mix: " + operation);
+            }
+        }
+    }
+
+    private void send(String endpoint, HttpRequest.Builder builder) {
+        long started = System.nanoTime();
+        boolean failed;
+        try {
+            HttpResponse<Void> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recording) {
+            recorders.computeIfAbsent(endpoint, key -> new LatencyRecorder()).record(System.nanoTime() - started, failed);
+        }
+    }
+
+    private HttpRequest.Builder get(String path, String token) {
+        return request(path, token).GET();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    // The newest posts, i.e. what the feed shows; the Zipf ranks are applied over them
+    private List<Long> loadPostIds() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        for (int page = 0; page < feedPages; page++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/posts?size=50&page=" + page)).GET().build();
+            JsonNode content = objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body()).path("content");
+            content.forEach(post -> ids.add(post.path("id").asLong()));
+            if (content.size() < 50) {
+                break;
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No posts found at " + baseUrl + "; seed the database first");
+        }
+        return ids;
+    }
+
+    private List<String> logIn() throws IOException, InterruptedException {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 1; i <= Math.min(users, concurrency); i++) {
+            String body = objectMapper.writeValueAsString(Map.of("username", usernamePrefix + i, "password", password));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login as " + usernamePrefix + i + " failed: " + response.body());
+            }
+            tokens.add(objectMapper.readTree(response.body()).path("token").asText());
+        }
+        return tokens;
+    }
+
+    private void report() {
+        System.out.printf("%n%-36s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        recorders.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            LatencyRecorder recorder = entry.getValue();
+            long[] sorted = recorder.sortedLatencies();
+            System.out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), sorted.length, recorder.errors(), (double) sorted.length / durationSeconds,
+                    percentileMs(sorted, 50), percentileMs(sorted, 90), percentileMs(sorted, 99),
+                    percentileMs(sorted, 99.9), percentileMs(sorted, 100));
+        });
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.split(":");
+            weights.put(nameAndWeight[0].trim(), Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return weights;
+    }
+
+    // All latencies of one endpoint, in nanoseconds
+    private static final class LatencyRecorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void record(long nanos, boolean failed) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (failed) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
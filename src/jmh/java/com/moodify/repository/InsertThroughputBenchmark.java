@@ -0,0 +1,144 @@
+package com.moodify.repository;
+
+import com.moodify.BenchmarkApplication;
+import com.moodify.model.Post;
+import com.moodify.model.User;
+import com.moodify.service.LikeWriteBehindBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Rows inserted per second on the three bulk write paths, ROWS rows in one transaction per invocation:
+//  - entityInserts: saveAll of new Post entities, ids from the pooled posts_seq, batched by Hibernate
+//    (hibernate.jdbc.batch_size; 1 turns batching off, only this benchmark depends on the parameter)
+//  - seedInserts: a JDBC batch of posts with ids from SequenceIdAllocator, as DatasetSeeder writes them
+//  - likeFlush: ROWS buffered likes (or unlikes) flushed by LikeWriteBehindBuffer, counters included
+// All run with reWriteBatchedInserts, which turns a JDBC batch of inserts into multi-row inserts.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InsertThroughputBenchmark {
+
+    private static final int ROWS = 500;
+    // ROWS (user, post) pairs for the like flush
+    private static final int LIKE_USERS = 50;
+    private static final int LIKE_POSTS = ROWS / LIKE_USERS;
+
+    private static final String INSERT_POST_SQL =
+            "INSERT INTO posts (id, content, song_url, created_at, like_count, comment_count, user_id) VALUES (?, ?, ?, ?, 0, 0, ?)";
+
+    @Param({"1", "50"})
+    public int hibernateBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private PostRepository postRepository;
+    private JdbcTemplate jdbcTemplate;
+    private SequenceIdAllocator idAllocator;
+    private TransactionTemplate transactionTemplate;
+    private LikeWriteBehindBuffer likeBuffer;
+    private User author;
+    private final List<Long> likeUserIds = new ArrayList<>();
+    private final List<Long> likePostIds = new ArrayList<>();
+    private boolean liked;
+
+    @Setup
+    public void setUp() {
+        // The buffer is only flushed by the benchmark
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + hibernateBatchSize,
+                "moodify.app.likes.writeBehind.enabled=true",
+                "moodify.app.likes.writeBehind.flushIntervalMs=3600000",
+                "moodify.app.likes.writeBehind.flushBatchSize=" + ROWS);
+        postRepository = context.getBean(PostRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        idAllocator = context.getBean(SequenceIdAllocator.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        likeBuffer = context.getBean(LikeWriteBehindBuffer.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String prefix = "bench-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < LIKE_USERS; i++) {
+            User user = new User();
+            user.setUsername(prefix + i);
+            user.setEmail(prefix + i + "@benchmark.moodify");
+            user.setPassword("not-a-password-hash");
+            users.add(user);
+        }
+        users = userRepository.saveAllAndFlush(users);
+        users.forEach(user -> likeUserIds.add(user.getId()));
+        author = users.get(0);
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < LIKE_POSTS; i++) {
+            posts.add(newPost("Liked benchmark post " + i));
+        }
+        postRepository.saveAllAndFlush(posts).forEach(post -> likePostIds.add(post.getId()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Post> entityInserts() {
+        return transactionTemplate.execute(status -> {
+            List<Post> posts = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                posts.add(newPost("Benchmark post " + i));
+            }
+            return postRepository.saveAll(posts);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] seedInserts() {
+        long[] ids = idAllocator.nextIds("posts_seq", ROWS);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{ids[i], "Seeded benchmark post " + i, "https://open.spotify.com/track/" + i, now, author.getId()});
+        }
+        return transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT_POST_SQL, rows));
+    }
+
+    // Alternates between liking and unliking every pair, so each flush writes ROWS inserts or ROWS deletes
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void likeFlush() {
+        liked = !liked;
+        for (Long userId : likeUserIds) {
+            for (Long postId : likePostIds) {
+                likeBuffer.record(userId, postId, liked, !liked);
+            }
+        }
+        likeBuffer.flush();
+    }
+
+    private Post newPost(String content) {
+        Post post = new Post();
+        post.setUser(author);
+        post.setContent(content);
+        post.setSongUrl("https://open.spotify.com/track/benchmark");
+        return post;
+    }
+}
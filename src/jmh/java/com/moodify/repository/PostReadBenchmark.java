@@ -0,0 +1,96 @@
+package com.moodify.repository;
+
+import com.moodify.BenchmarkApplication;
+import com.moodify.model.Post;
+import com.moodify.model.User;
+import com.moodify.repository.projection.PostRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reading a feed page as PostRow projections (what GET /api/posts does) against loading the Post
+// entities as it did before: the entities, each author through the lazy association, and with it the
+// author's EAGER roles. Both return the same rows. Run with the GC profiler for the allocation per page:
+//   mvn -Pbenchmark verify -Djmh.args="PostReadBenchmark -prof gc"
+// and compare gc.alloc.rate.norm (bytes per page) next to the time per page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostReadBenchmark {
+
+    private static final int AUTHORS = 200;
+    private static final int POSTS = 5_000;
+
+    @Param({"12", "50"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private PostRepository postRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        postRepository = context.getBean(PostRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        // Authors with a role each, so that loading an author also loads its roles
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (username, email, password, enabled, created_at) " +
+                "SELECT 'bench-author-' || i, 'bench-author-' || i || '@benchmark.moodify', 'x', true, now() " +
+                "FROM generate_series(1, ?) i", AUTHORS);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) " +
+                "SELECT u.id, r.id FROM users u, roles r WHERE u.username LIKE 'bench-author-%' AND r.name = 'ROLE_USER'");
+        jdbcTemplate.update("INSERT INTO posts (content, song_url, created_at, like_count, comment_count, user_id) " +
+                "SELECT 'Benchmark post ' || i, 'https://open.spotify.com/track/' || md5(i::text), " +
+                "now() - i * interval '1 minute', i % 100, i % 10, a.id " +
+                "FROM generate_series(1, ?) i JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n " +
+                "FROM users WHERE username LIKE 'bench-author-%') a ON a.n = i % ?", POSTS, AUTHORS);
+        jdbcTemplate.execute("ANALYZE users, user_roles, posts");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostRow> projections() {
+        return readOnlyTransaction.execute(status -> postRepository.findPostRows(PageRequest.of(0, pageSize)));
+    }
+
+    @Benchmark
+    public List<PostRow> entities() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT p FROM Post p ORDER BY p.createdAt DESC", Post.class)
+                .setMaxResults(pageSize)
+                .getResultList().stream()
+                .map(PostReadBenchmark::toRow)
+                .toList());
+    }
+
+    private static PostRow toRow(Post post) {
+        User author = post.getUser();
+        return new PostRow(post.getId(), post.getContent(), post.getSongUrl(), post.getCreatedAt(),
+                author.getId(), author.getUsername(), post.getLikeCount(), post.getCommentCount());
+    }
+}
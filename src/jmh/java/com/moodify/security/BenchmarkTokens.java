@@ -0,0 +1,31 @@
+package com.moodify.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+
+// JwtUtils and a signed-in user set up the way Spring would, for the security benchmarks
+final class BenchmarkTokens {
+
+    // 512-bit key, as required for HS512
+    static final String SECRET =
+            "bW9vZGlmeS1iZW5jaG1hcmstc2VjcmV0LWtleS1tb29kaWZ5LWJlbmNobWFyay1zZWNyZXQta2V5LW1vb2RpZnktYmVuY2htYXJr";
+
+    private BenchmarkTokens() {
+    }
+
+    static JwtUtils jwtUtils(long verifiedTokenCacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecretString", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheSize", verifiedTokenCacheSize);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    static Authentication authentication() {
+        UserPrincipal principal = new UserPrincipal(42L, "benchmark-user", "password", true, List.of("ROLE_USER"));
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,72 @@
+package com.moodify.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import javax.crypto.SecretKey;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Token signing at login, and verification on every authenticated request:
+// a verified-token cache hit (the common case) and a full HS512 signature check, against verifyBaseline,
+// the verification as it was before the key and the parser were built once.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = BenchmarkTokens.jwtUtils(10000);
+        uncachedJwtUtils = BenchmarkTokens.jwtUtils(10000);
+        // Evicts synchronously, so every verification misses the cache
+        ReflectionTestUtils.setField(uncachedJwtUtils, "verifiedTokens",
+                Caffeine.newBuilder().maximumSize(0).executor(Runnable::run).build());
+        authentication = BenchmarkTokens.authentication();
+        token = jwtUtils.generateJwtToken(authentication);
+        jwtUtils.verifyAndGetClaims(token);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyCached() {
+        return jwtUtils.verifyAndGetClaims(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyUncached() {
+        return uncachedJwtUtils.verifyAndGetClaims(token);
+    }
+
+    // What the filter did per request before: validateJwtToken, then getUserNameFromJwtToken, each
+    // decoding the secret into a key and building a parser for a full parse of the token
+    @Benchmark
+    public String verifyBaseline() {
+        Jwts.parser().verifyWith(baselineKey()).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(baselineKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    private static SecretKey baselineKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(BenchmarkTokens.SECRET));
+    }
+}
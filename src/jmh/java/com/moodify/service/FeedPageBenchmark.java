@@ -0,0 +1,94 @@
+package com.moodify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.moodify.cache.FeedPageCache;
+import com.moodify.cache.PostResponseCache;
+import com.moodify.dto.PostResponse;
+import com.moodify.repository.CommentRepository;
+import com.moodify.repository.LikeRepository;
+import com.moodify.repository.PostRepository;
+import com.moodify.repository.SequenceIdAllocator;
+import com.moodify.repository.projection.PostRow;
+import com.moodify.security.AuthenticationHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Assembling a feed page: PostRow -> PostResponse mapping and Jackson serialization of the Page,
+// as returned by GET /api/posts. No database: the rows are built in memory.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeedPageBenchmark {
+
+    @Param({"12", "50"})
+    private int pageSize;
+
+    private PostService postService;
+    private ObjectMapper objectMapper;
+    private List<PostRow> rows;
+    private Page<PostResponse> page;
+
+    @Setup
+    public void setUp() {
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        FeedPageCache feedPageCache = Mockito.mock(FeedPageCache.class);
+        PostResponseCache postResponseCache = Mockito.mock(PostResponseCache.class);
+        postService = new PostService(
+                Mockito.mock(PostRepository.class),
+                Mockito.mock(LikeRepository.class),
+                Mockito.mock(CommentRepository.class),
+                Mockito.mock(AuthenticationHelper.class),
+                feedPageCache,
+                postResponseCache,
+                new LikeWriteBehindBuffer(Mockito.mock(JdbcTemplate.class), transactionManager,
+                        Mockito.mock(SequenceIdAllocator.class), feedPageCache, postResponseCache, new SimpleMeterRegistry()),
+                transactionManager,
+                new SyncTaskExecutor(),
+                500,
+                new SimpleMeterRegistry());
+        // Same serialization settings as the application (Spring Boot's defaults)
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        rows = LongStream.range(0, pageSize)
+                .mapToObj(id -> new PostRow(id, "Listening to this on repeat today, what do you think? #" + id,
+                        "https://open.spotify.com/track/" + id, now.minusMinutes(id), id % 100, "user" + (id % 100),
+                        id * 7, id * 3))
+                .toList();
+        page = mapPage();
+    }
+
+    @Benchmark
+    public Page<PostResponse> mapPage() {
+        List<PostResponse> responses = rows.stream().map(postService::mapPostRowToPostResponse).toList();
+        return new PageImpl<>(responses, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")), 10000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,79 @@
+package com.moodify.service;
+
+import com.moodify.BenchmarkApplication;
+import com.moodify.dto.LikeCountResponse;
+import com.moodify.model.Post;
+import com.moodify.model.User;
+import com.moodify.repository.LikeRepository;
+import com.moodify.repository.PostRepository;
+import com.moodify.repository.UserRepository;
+import com.moodify.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// LikeService like + unlike through the full service stack (transaction, native CTE, cache updates)
+// against a throwaway database (see BenchmarkApplication). Creates its own user and post. Run single-threaded.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LikeBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private LikeService likeService;
+    private Long userId;
+    private Long postId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        likeService = context.getBean(LikeService.class);
+
+        String name = "bench-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@benchmark.moodify");
+        user.setPassword("not-a-password-hash");
+        user = context.getBean(UserRepository.class).saveAndFlush(user);
+        userId = user.getId();
+
+        Post post = new Post();
+        post.setUser(user);
+        post.setContent("Benchmark post");
+        postId = context.getBean(PostRepository.class).saveAndFlush(post).getId();
+
+        UserPrincipal principal = new UserPrincipal(userId, name, "", true, List.of("ROLE_USER"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public LikeCountResponse likeThenUnlike() {
+        likeService.likePost(postId);
+        return likeService.unlikePost(postId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            context.getBean(LikeRepository.class).deleteByPostId(postId);
+            context.getBean(PostRepository.class).deletePostById(postId);
+            context.getBean(UserRepository.class).deleteById(userId);
+        });
+        context.close();
+    }
+}
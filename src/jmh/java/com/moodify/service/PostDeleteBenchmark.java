@@ -0,0 +1,105 @@
+package com.moodify.service;
+
+import com.moodify.BenchmarkApplication;
+import com.moodify.repository.SequenceIdAllocator;
+import com.moodify.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// PostService.deletePost of a post with `interactions` likes and as many comments, as DELETE /api/posts/{postId}
+// runs it: the post lock and three set-based deletes, however many rows hang off the post.
+// Every invocation deletes a fresh post, seeded before it (not timed) with JDBC batches and ids from
+// SequenceIdAllocator, as DatasetSeeder writes them. Run single-threaded.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PostDeleteBenchmark {
+
+    private static final String INSERT_POST_SQL =
+            "INSERT INTO posts (id, content, song_url, created_at, like_count, comment_count, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COMMENT_SQL =
+            "INSERT INTO comments (id, content, created_at, user_id, post_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_LIKE_SQL =
+            "INSERT INTO likes (id, created_at, user_id, post_id) VALUES (?, ?, ?, ?)";
+
+    @Param({"100", "1000", "10000"})
+    public int interactions;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private JdbcTemplate jdbcTemplate;
+    private SequenceIdAllocator idAllocator;
+    private TransactionTemplate transactionTemplate;
+    private UserPrincipal author;
+    // One like and one comment per user, so that the likes stay unique per (user, post)
+    private List<Long> userIds;
+    private long postId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        postService = context.getBean(PostService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        idAllocator = context.getBean(SequenceIdAllocator.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        String prefix = "bench-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        jdbcTemplate.update("INSERT INTO users (username, email, password, enabled, created_at) " +
+                "SELECT ? || i, ? || i || '@benchmark.moodify', 'not-a-password-hash', true, now() " +
+                "FROM generate_series(1, ?) i", prefix, prefix, interactions);
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id", Long.class, prefix + "%");
+        author = new UserPrincipal(userIds.get(0), prefix + 1, "", true, List.of("ROLE_USER"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void seedPost() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(author, null, author.getAuthorities()));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        postId = idAllocator.nextId("posts_seq");
+        long[] likeIds = idAllocator.nextIds("likes_seq", interactions);
+        long[] commentIds = idAllocator.nextIds("comments_seq", interactions);
+        List<Object[]> likes = new ArrayList<>(interactions);
+        List<Object[]> comments = new ArrayList<>(interactions);
+        for (int i = 0; i < interactions; i++) {
+            likes.add(new Object[]{likeIds[i], now, userIds.get(i), postId});
+            comments.add(new Object[]{commentIds[i], "Benchmark comment " + i, now, userIds.get(i), postId});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(INSERT_POST_SQL, postId, "Post to delete", "https://open.spotify.com/track/benchmark",
+                    now, interactions, interactions, author.getId());
+            jdbcTemplate.batchUpdate(INSERT_LIKE_SQL, likes);
+            jdbcTemplate.batchUpdate(INSERT_COMMENT_SQL, comments);
+        });
+    }
+
+    @Benchmark
+    public void deletePost() {
+        postService.deletePost(postId);
+    }
+}
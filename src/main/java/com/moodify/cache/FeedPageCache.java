@@ -0,0 +1,157 @@
+package com.moodify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.moodify.dto.CacheStatsResponse;
+import com.moodify.datasource.PrimaryReads;
+import com.moodify.dto.PostResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// Bounded cache of assembled first pages of GET /api/posts.
+// Entries are dropped after commit of any change that affects them:
+// - a new post shifts every page, so all pages are dropped
+// - an edit, like or comment only drops the pages that contain the post
+// - a deleted post drops, in each listing, the first page that may contain it and every later page
+@Component
+public class FeedPageCache {
+
+    public static final String NAME = "feedPages";
+
+    private record FeedPageKey(int pageNumber, int pageSize, String sort) {
+    }
+
+    private record Listing(int pageSize, String sort) {
+    }
+
+    private record CachedFeedPage(Page<PostResponse> page, long cachedAtNanos) {
+        boolean containsPost(Long postId) {
+            return page.getContent().stream().anyMatch(post -> post.getId().equals(postId));
+        }
+    }
+
+    private final Cache<FeedPageKey, CachedFeedPage> cache;
+    private final int maxCachedPages;
+
+    // Bumped on every invalidation; a page loaded across an invalidation is served but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder invalidations = new LongAdder();
+    private final StalenessRecorder staleness = new StalenessRecorder();
+
+    public FeedPageCache(@Value("${moodify.app.feedCache.maxEntries:100}") long maxEntries,
+                         @Value("${moodify.app.feedCache.ttlSeconds:30}") long ttlSeconds,
+                         @Value("${moodify.app.feedCache.maxCachedPages:3}") int maxCachedPages,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.maxCachedPages = maxCachedPages;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    // cacheable is checked after the load; a page assembled with missing parts (see PostService) is served but not cached.
+    // Only loads of cached pages read from the primary: a replica's stale page would outlive the replica's lag.
+    public Page<PostResponse> get(Pageable pageable, Supplier<Page<PostResponse>> loader, BooleanSupplier cacheable) {
+        if (pageable.isUnpaged() || pageable.getPageNumber() >= maxCachedPages) {
+            return loader.get();
+        }
+        FeedPageKey key = new FeedPageKey(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        CachedFeedPage cached = cache.getIfPresent(key);
+        if (cached != null) {
+            staleness.record(cached.cachedAtNanos());
+            return cached.page();
+        }
+        long generationBeforeLoad = generation.get();
+        Page<PostResponse> page = PrimaryReads.run(loader);
+        if (cacheable.getAsBoolean()) {
+            // Checked inside compute so that an invalidation cannot run between the check and the put
+            cache.asMap().compute(key, (k, current) -> generation.get() == generationBeforeLoad
+                    ? new CachedFeedPage(page, System.nanoTime())
+                    : current);
+        }
+        return page;
+    }
+
+    // --- Invalidation (applied after the current transaction commits) ---
+
+    public void invalidateAll() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            invalidations.add(cache.estimatedSize());
+            cache.invalidateAll();
+        });
+    }
+
+    public void invalidatePagesContaining(Long postId) {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            cache.asMap().entrySet().removeIf(entry -> {
+                boolean affected = entry.getValue().containsPost(postId);
+                if (affected) {
+                    invalidations.increment();
+                }
+                return affected;
+            });
+        });
+    }
+
+    // A deleted post shifts every later page of each listing. The earliest affected page of a listing is the
+    // first cached page that contains the post, or the first uncached page, since the post may be on it.
+    public void invalidatePagesFrom(Long deletedPostId) {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            Map<FeedPageKey, CachedFeedPage> entries = cache.asMap();
+            Map<Listing, Integer> firstAffectedPage = new HashMap<>();
+            for (Map.Entry<FeedPageKey, CachedFeedPage> entry : entries.entrySet()) {
+                FeedPageKey key = entry.getKey();
+                firstAffectedPage.computeIfAbsent(new Listing(key.pageSize(), key.sort()), listing -> {
+                    for (int pageNumber = 0; pageNumber < maxCachedPages; pageNumber++) {
+                        CachedFeedPage cached = entries.get(new FeedPageKey(pageNumber, listing.pageSize(), listing.sort()));
+                        if (cached == null || cached.containsPost(deletedPostId)) {
+                            return pageNumber;
+                        }
+                    }
+                    return maxCachedPages;
+                });
+            }
+            entries.keySet().removeIf(key -> {
+                boolean affected = key.pageNumber() >= firstAffectedPage.getOrDefault(new Listing(key.pageSize(), key.sort()), 0);
+                if (affected) {
+                    invalidations.increment();
+                }
+                return affected;
+            });
+        });
+    }
+
+    // --- Metrics ---
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                NAME,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                invalidations.sum(),
+                staleness.averageMs(),
+                staleness.maxMs());
+    }
+}
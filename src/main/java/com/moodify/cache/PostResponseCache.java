@@ -0,0 +1,173 @@
+package com.moodify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.moodify.dto.CacheStatsResponse;
+import com.moodify.datasource.PrimaryReads;
+import com.moodify.dto.PostResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Bounded per-post cache of PostResponse for GET /api/posts/{postId}.
+// Caffeine's W-TinyLFU admission keeps hot posts resident; concurrent misses on the same id
+// are collapsed into a single load. The load runs outside any cache lock, so a virtual thread
+// waiting on the database is never pinned to its carrier. Like/comment changes update the cached counters in place
+// (after commit) instead of evicting, so a viral post keeps being served from memory.
+// Counters are written as absolute values, so a late update can leave an entry off by a few
+// until the next change or TTL expiry.
+@Component
+public class PostResponseCache {
+
+    public static final String NAME = "posts";
+
+    private record CachedPost(PostResponse response, long cachedAtNanos) {
+    }
+
+    private final Cache<Long, CachedPost> cache;
+    // Loads in progress; concurrent misses on the same id wait for the first one
+    private final ConcurrentHashMap<Long, CompletableFuture<PostResponse>> loading = new ConcurrentHashMap<>();
+    // Bumped on every update or invalidation, inside the compute() on the post's entry; a post loaded across
+    // one is returned but not cached. The load checks it inside its own compute() on the entry, so an update
+    // either runs after the loaded entry is in place, and applies to it, or keeps the load from being cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder invalidations = new LongAdder();
+    private final StalenessRecorder staleness = new StalenessRecorder();
+
+    public PostResponseCache(@Value("${moodify.app.postCache.maxEntries:10000}") long maxEntries,
+                             @Value("${moodify.app.postCache.ttlSeconds:300}") long ttlSeconds,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    // The loader runs at most once per id at a time; its exceptions (e.g. 404) are propagated and nothing is cached.
+    // It reads from the primary, since a replica's stale row would outlive the replica's lag.
+    public PostResponse get(Long postId, Supplier<PostResponse> loader) {
+        CachedPost cached = cache.getIfPresent(postId);
+        if (cached != null) {
+            staleness.record(cached.cachedAtNanos());
+            return cached.response();
+        }
+        CompletableFuture<PostResponse> load = new CompletableFuture<>();
+        CompletableFuture<PostResponse> inProgress = loading.putIfAbsent(postId, load);
+        if (inProgress != null) {
+            return await(inProgress);
+        }
+        long generationBeforeLoad = generation.get();
+        try {
+            PostResponse response = PrimaryReads.run(loader);
+            // compute() does not record stats, so the miss above is counted exactly once
+            cache.asMap().compute(postId, (id, current) -> generation.get() == generationBeforeLoad
+                    ? new CachedPost(response, System.nanoTime())
+                    : current);
+            load.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(postId, load);
+        }
+    }
+
+    private static PostResponse await(CompletableFuture<PostResponse> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // --- Updates (applied after the current transaction commits) ---
+
+    public void put(PostResponse response) {
+        PostResponse copy = copyOf(response);
+        AfterCommit.run(() -> cache.asMap().compute(copy.getId(), (id, cached) -> {
+            generation.incrementAndGet();
+            return new CachedPost(copy, System.nanoTime());
+        }));
+    }
+
+    public void updateLikeCount(Long postId, long likeCount) {
+        AfterCommit.run(() -> cache.asMap().compute(postId, (id, cached) -> {
+            generation.incrementAndGet();
+            if (cached == null) {
+                return null;
+            }
+            PostResponse updated = copyOf(cached.response());
+            updated.setLikeCount(likeCount);
+            return new CachedPost(updated, System.nanoTime());
+        }));
+    }
+
+    public void updateCommentCount(Long postId, long commentCount) {
+        AfterCommit.run(() -> cache.asMap().compute(postId, (id, cached) -> {
+            generation.incrementAndGet();
+            if (cached == null) {
+                return null;
+            }
+            PostResponse updated = copyOf(cached.response());
+            updated.setCommentCount(commentCount);
+            return new CachedPost(updated, System.nanoTime());
+        }));
+    }
+
+    public void invalidate(Long postId) {
+        AfterCommit.run(() -> cache.asMap().compute(postId, (id, cached) -> {
+            generation.incrementAndGet();
+            if (cached != null) {
+                invalidations.increment();
+            }
+            return null;
+        }));
+    }
+
+    public void invalidateAll() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            invalidations.add(cache.estimatedSize());
+            cache.invalidateAll();
+        });
+    }
+
+    // --- Metrics ---
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                NAME,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                invalidations.sum(),
+                staleness.averageMs(),
+                staleness.maxMs());
+    }
+
+    // Cached instances are shared between requests, so they are never mutated.
+    // likedByMe is per user and is never cached.
+    private static PostResponse copyOf(PostResponse source) {
+        return new PostResponse(source.getId(), source.getContent(), source.getCreatedAt(), source.getAuthor(),
+                source.getLikeCount(), source.getCommentCount(), source.getSongUrl(), null);
+    }
+}
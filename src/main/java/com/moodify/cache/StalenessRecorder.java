@@ -0,0 +1,29 @@
+package com.moodify.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Tracks how old cache entries are at the moment they are served
+final class StalenessRecorder {
+
+    private final LongAdder totalMs = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicLong maxMs = new AtomicLong();
+
+    void record(long cachedAtNanos) {
+        long ageMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cachedAtNanos);
+        totalMs.add(ageMs);
+        samples.increment();
+        maxMs.accumulateAndGet(ageMs, Math::max);
+    }
+
+    double averageMs() {
+        long count = samples.sum();
+        return count == 0 ? 0.0 : (double) totalMs.sum() / count;
+    }
+
+    long maxMs() {
+        return maxMs.get();
+    }
+}
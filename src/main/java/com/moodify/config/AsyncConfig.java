@@ -0,0 +1,52 @@
+package com.moodify.config;
+
+import com.moodify.datasource.PrimaryReads;
+import com.moodify.monitoring.SqlStatementCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Runs admin user purges in the background. A single thread by default: purges are rare,
+    // and running them one at a time bounds the extra write load on the database.
+    // With spring.threads.virtual.enabled the workers are virtual threads; the pool still bounds their number.
+    @Bean(name = "userPurgeExecutor")
+    public ThreadPoolTaskExecutor userPurgeExecutor(@Value("${moodify.app.userPurge.threads:1}") int threads,
+                                                    @Value("${moodify.app.userPurge.queueCapacity:100}") int queueCapacity,
+                                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("user-purge-");
+        executor.setVirtualThreads(virtualThreads);
+        return executor;
+    }
+
+    // Runs the parts of a feed page that do not depend on each other (total count, likedByMe lookup)
+    // next to the request thread. When the pool and queue are full a part is rejected and PostService serves
+    // the page without it; running it on the request thread instead would add its latency to the page
+    // exactly when the database is slowest.
+    @Bean(name = "feedAssemblyExecutor")
+    public ThreadPoolTaskExecutor feedAssemblyExecutor(@Value("${moodify.app.feedAssembly.threads:8}") int threads,
+                                                       @Value("${moodify.app.feedAssembly.queueCapacity:100}") int queueCapacity,
+                                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("feed-assembly-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // Tasks run as the requesting user (read-your-writes routing), read from the primary when it does
+        // (a cache load) and count towards its SQL budget
+        executor.setTaskDecorator(task -> DelegatingSecurityContextRunnable.create(
+                PrimaryReads.propagate(SqlStatementCounter.propagate(task)), null));
+        return executor;
+    }
+}
@@ -0,0 +1,140 @@
+package com.moodify.config;
+
+import com.moodify.datasource.ConnectionLimitingDataSource;
+import com.moodify.datasource.ReadYourWritesWindow;
+import com.moodify.datasource.ReplicaDataSource;
+import com.moodify.security.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Configuration
+public class DataSourceConfig {
+
+    // Wraps each connection pool in a ConnectionLimitingDataSource. On by default when requests run on
+    // virtual threads (spring.threads.virtual.enabled), since nothing else bounds how many of them queue for a connection.
+    // Static: a BeanPostProcessor has to be created before the other beans of this class.
+    // Replica pools are not beans and are wrapped by ReadReplicaConfig.
+    @Bean
+    @ConditionalOnProperty(name = "moodify.app.db.connectionLimiter.enabled", havingValue = "true")
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    // Boot's pool is only named when it starts
+                    return limitConnections(pool, pool.getPoolName() != null ? pool.getPoolName() : beanName, environment);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static DataSource limitConnections(HikariDataSource pool, String poolName, Environment environment) {
+        int permits = environment.getProperty("moodify.app.db.connectionLimiter.permits", Integer.class, pool.getMaximumPoolSize());
+        int maxWaiting = environment.getProperty("moodify.app.db.connectionLimiter.maxWaiting", Integer.class, 200);
+        long acquireTimeoutMs = environment.getProperty("moodify.app.db.connectionLimiter.acquireTimeoutMs", Long.class, 2000L);
+        log.info("Limiting pool '{}' to {} connections with at most {} waiting threads ({} ms timeout)",
+                poolName, permits, maxWaiting, acquireTimeoutMs);
+        return new ConnectionLimitingDataSource(poolName, pool, permits, maxWaiting, acquireTimeoutMs);
+    }
+
+    // Read replicas (opt-in: moodify.app.db.replicas.urls).
+    //
+    // Replaces Boot's single pool with a primary pool behind a LazyConnectionDataSourceProxy. The proxy only
+    // takes a real connection at the first statement, once the transaction's read-only flag is known:
+    // read-write transactions and work outside transactions get the primary, read-only transactions
+    // (@Transactional(readOnly = true), the read-only TransactionTemplates) get a ReplicaDataSource connection.
+    // Replicas are asynchronous: a read can miss a write committed up to maxLagSeconds earlier, except the
+    // user's own writes within stickinessMs, which are read from the primary. Cache loads and the login
+    // lookup always read from the primary (PrimaryReads).
+    @Configuration
+    @ConditionalOnExpression("!'${moodify.app.db.replicas.urls:}'.isBlank()")
+    static class ReadReplicaConfig {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+            HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            primary.setPoolName("primary");
+            return primary;
+        }
+
+        @Bean
+        public ReadYourWritesWindow readYourWritesWindow(@Value("${moodify.app.db.replicas.stickinessMs:5000}") long stickinessMs) {
+            return new ReadYourWritesWindow(Duration.ofMillis(stickinessMs), ReadReplicaConfig::currentWriter);
+        }
+
+        @Bean(destroyMethod = "close")
+        public ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                   ReadYourWritesWindow readYourWritesWindow,
+                                                   DataSourceProperties properties,
+                                                   Environment environment,
+                                                   @Value("${moodify.app.db.replicas.urls}") List<String> urls,
+                                                   @Value("${moodify.app.db.replicas.username:${spring.datasource.username}}") String username,
+                                                   @Value("${moodify.app.db.replicas.password:${spring.datasource.password}}") String password,
+                                                   @Value("${moodify.app.db.replicas.poolSize:10}") int poolSize,
+                                                   @Value("${moodify.app.db.replicas.connectionTimeoutMs:1000}") long connectionTimeoutMs,
+                                                   @Value("${moodify.app.db.replicas.healthCheckIntervalMs:5000}") long healthCheckIntervalMs,
+                                                   @Value("${moodify.app.db.replicas.maxLagSeconds:10}") double maxLagSeconds,
+                                                   @Value("${moodify.app.db.connectionLimiter.enabled:false}") boolean limitConnections) {
+            List<ReplicaDataSource.Replica> replicas = new ArrayList<>();
+            for (String url : urls) {
+                String name = "replica-" + (replicas.size() + 1);
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName(name);
+                pool.setJdbcUrl(url.trim());
+                pool.setUsername(username);
+                pool.setPassword(password);
+                pool.setDriverClassName(properties.getDriverClassName());
+                pool.setMaximumPoolSize(poolSize);
+                pool.setReadOnly(true);
+                // Short, so that reads fall back to the next replica or the primary quickly when a replica is down
+                pool.setConnectionTimeout(connectionTimeoutMs);
+                // A replica that is down at startup must not stop the application; it is retried by the health check
+                pool.setInitializationFailTimeout(-1);
+                replicas.add(new ReplicaDataSource.Replica(name, limitConnections ? limitConnections(pool, name, environment) : pool));
+                log.info("Read-only transactions may use replica '{}' at {}", name, url.trim());
+            }
+            return new ReplicaDataSource(primary, replicas, readYourWritesWindow,
+                    Duration.ofMillis(healthCheckIntervalMs), maxLagSeconds);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                     ReplicaDataSource replicaDataSource,
+                                     ReadYourWritesWindow readYourWritesWindow) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(readYourWritesWindow.trackingWrites(primary));
+            dataSource.setReadOnlyDataSource(replicaDataSource);
+            return dataSource;
+        }
+
+        // The current user's id; null without a user, which is not tracked
+        private static Object currentWriter() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+                return principal.getId();
+            }
+            return null;
+        }
+    }
+}
@@ -16,9 +16,11 @@ public final class EndpointConstants {
     // PostController Endpoints
     public static final String POST_CONTROLLER_BASE_PATH = API_BASE + "/posts";
     public static final String POST_BY_ID_ENDPOINT = "/{postId}";           // GET, PUT, DELETE
+    public static final String POST_FEED_SCROLL_ENDPOINT = "/scroll";       // GET (keyset pagination)
 
     // CommentController Endpoints
     public static final String COMMENTS_FOR_POST_ENDPOINT = "/posts/{postId}/comments"; // POST, GET /api/posts/{postId}/comments
+    public static final String COMMENTS_FOR_POST_SCROLL_ENDPOINT = "/posts/{postId}/comments/scroll"; // GET (keyset pagination)
     public static final String COMMENT_BY_ID_OPERATIONS_ENDPOINT = "/comments/{commentId}"; // DELETE /api/comments/{commentId}
 
     // LikeController Endpoints
@@ -30,6 +32,8 @@ public final class EndpointConstants {
     public static final String ADMIN_DELETE_POST_ENDPOINT = "/posts/{postId}";         // DELETE
     public static final String ADMIN_DELETE_COMMENT_ENDPOINT = "/comments/{commentId}"; // DELETE
     public static final String ADMIN_GET_ALL_USERS_ENDPOINT = "/users";                // GET
-    public static final String ADMIN_DELETE_USER_ENDPOINT = "/users/{userId}";         // DELETE
+    public static final String ADMIN_DELETE_USER_ENDPOINT = "/users/{userId}";         // DELETE (202, starts a purge job)
+    public static final String ADMIN_USER_PURGE_JOB_ENDPOINT = "/users/purge-jobs/{jobId}"; // GET
+    public static final String ADMIN_CACHE_STATS_ENDPOINT = "/caches";                 // GET
 
 }
\ No newline at end of file
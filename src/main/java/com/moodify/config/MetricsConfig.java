@@ -0,0 +1,24 @@
+package com.moodify.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Micrometer setup; meters are scraped from /actuator/prometheus.
+// Auto-configured by Spring Boot: http.server.requests (per endpoint, with histogram buckets),
+// spring.data.repository.invocations (per repository method) and hikaricp.connections.*.
+// Added here: @Timed service methods (moodify.service), moodify.jwt.verification,
+// moodify.sql.statements per request and the Caffeine caches (cache.*).
+@Configuration
+public class MetricsConfig {
+
+    // Timer of the public methods of every @Timed(SERVICE_TIMER) service, tagged with class and method
+    public static final String SERVICE_TIMER = "moodify.service";
+
+    // Makes @Timed work on any Spring bean, not only on controllers
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -12,22 +12,32 @@ import com.moodify.security.AuthEntryPointJwt;
 import com.moodify.security.AuthTokenFilter;
 import com.moodify.security.CustomAccessDeniedHandler;
 import com.moodify.security.JwtUtils;
+import com.moodify.security.UserStatusCache;
 import com.moodify.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 @Slf4j
 @Configuration
@@ -40,22 +50,28 @@ public class SecurityConfig {
     private final AuthEntryPointJwt unauthorizedHandler;
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
     private final JwtUtils jwtUtils;
+    private final UserStatusCache userStatusCache;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
     public SecurityConfig(UserDetailsServiceImpl userDetailsService,
                           AuthEntryPointJwt unauthorizedHandler,
                           CustomAccessDeniedHandler customAccessDeniedHandler,
-                          JwtUtils jwtUtils) {
+                          JwtUtils jwtUtils,
+                          UserStatusCache userStatusCache,
+                          MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.unauthorizedHandler = unauthorizedHandler;
         this.customAccessDeniedHandler = customAccessDeniedHandler;
         this.jwtUtils = jwtUtils;
+        this.userStatusCache = userStatusCache;
+        this.meterRegistry = meterRegistry;
     }
 
     // Beans
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsService, userStatusCache, meterRegistry);
     }
 
     @Bean
@@ -101,6 +117,36 @@ public class SecurityConfig {
         return source;
     }
 
+    // The Prometheus scrape, authenticated with HTTP Basic and its own credential
+    // (moodify.app.metrics.scrapeUsername / scrapePassword) instead of a user's JWT, which expires.
+    // Closed while no scrape password is configured. A plain path matcher: the MVC matcher that
+    // securityMatcher(String) builds needs Spring MVC, which the benchmarks' non-web context does not start.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsScrapeFilterChain(HttpSecurity http,
+                                                        @Value("${moodify.app.metrics.scrapeUsername:prometheus}") String username,
+                                                        @Value("${moodify.app.metrics.scrapePassword:}") String password) throws Exception {
+        http
+                .securityMatcher(AntPathRequestMatcher.antMatcher("/actuator/prometheus"))
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .httpBasic(Customizer.withDefaults());
+        if (password.isBlank()) {
+            log.warn("moodify.app.metrics.scrapePassword is not set; /actuator/prometheus is closed");
+            http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll());
+        } else {
+            DaoAuthenticationProvider scrapeAuthentication = new DaoAuthenticationProvider();
+            scrapeAuthentication.setPasswordEncoder(passwordEncoder());
+            scrapeAuthentication.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(username)
+                    .password(passwordEncoder().encode(password))
+                    .roles("METRICS")
+                    .build()));
+            http.authenticationManager(new ProviderManager(scrapeAuthentication))
+                    .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"));
+        }
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -115,6 +161,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        // Liveness is open; the other actuator endpoints are for admins (the scrape has its own chain)
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/posts", "/api/posts/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/posts/*/comments").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/posts/*/likes").authenticated()
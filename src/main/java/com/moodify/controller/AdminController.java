@@ -1,9 +1,14 @@
 package com.moodify.controller;
 
+import com.moodify.cache.FeedPageCache;
+import com.moodify.cache.PostResponseCache;
+import com.moodify.dto.CacheStatsResponse;
 import com.moodify.dto.MessageResponse;
+import com.moodify.dto.UserPurgeJobResponse;
 import com.moodify.dto.UserResponseDto;
 import com.moodify.service.CommentService;
 import com.moodify.service.PostService;
+import com.moodify.service.UserPurgeService;
 import com.moodify.service.UserService;
 import static com.moodify.config.EndpointConstants.*;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +19,9 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.net.URI;
+import java.util.List;
 
 @Slf4j
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -24,14 +32,23 @@ public class AdminController {
     private final PostService postService;
     private final CommentService commentService;
     private final UserService userService;
+    private final UserPurgeService userPurgeService;
+    private final FeedPageCache feedPageCache;
+    private final PostResponseCache postResponseCache;
 
     @Autowired
     public AdminController(PostService postService,
                            CommentService commentService,
-                           UserService userService) {
+                           UserService userService,
+                           UserPurgeService userPurgeService,
+                           FeedPageCache feedPageCache,
+                           PostResponseCache postResponseCache) {
         this.postService = postService;
         this.commentService = commentService;
         this.userService = userService;
+        this.userPurgeService = userPurgeService;
+        this.feedPageCache = feedPageCache;
+        this.postResponseCache = postResponseCache;
     }
 
     @DeleteMapping(ADMIN_DELETE_POST_ENDPOINT)
@@ -59,13 +76,31 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
 
+    // The user is disabled immediately and their content is deleted by a background job:
+    // 202 Accepted, with the job status URL in the Location header. The status is held in memory by this
+    // instance (see UserPurgeService), so the URL is only valid here and until the next restart.
     @DeleteMapping(ADMIN_DELETE_USER_ENDPOINT)
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<MessageResponse> deleteUserAsAdmin(@PathVariable Long userId) {
+    public ResponseEntity<UserPurgeJobResponse> deleteUserAsAdmin(@PathVariable Long userId) {
         log.warn("[ADMIN ACTION] Admin attempting to delete user id: {}", userId);
-        // Call the service method. Errors (NotFound, etc.) will be caught by RestExceptionHandler
-        userService.deleteUser(userId);
-        // Return a successfull response
-        return ResponseEntity.ok(new MessageResponse("User with id " + userId + " and their associated posts deleted successfully by admin."));
+        // Errors (NotFound, a full purge queue: 503) will be caught by RestExceptionHandler
+        UserPurgeJobResponse job = userPurgeService.submit(userId);
+        URI statusUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(ADMIN_CONTROLLER_BASE_PATH + ADMIN_USER_PURGE_JOB_ENDPOINT)
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(statusUri).body(job);
+    }
+
+    @GetMapping(ADMIN_USER_PURGE_JOB_ENDPOINT)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserPurgeJobResponse> getUserPurgeJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(userPurgeService.getJob(jobId));
+    }
+
+    @GetMapping(ADMIN_CACHE_STATS_ENDPOINT)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(List.of(feedPageCache.stats(), postResponseCache.stats()));
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.moodify.controller;
 
 import com.moodify.dto.CommentCreateRequest;
 import com.moodify.dto.CommentResponse;
+import com.moodify.dto.CursorPage;
 import com.moodify.dto.MessageResponse;
 import com.moodify.service.CommentService;
 import static com.moodify.config.EndpointConstants.*;
@@ -47,6 +48,18 @@ public class CommentController {
         return ResponseEntity.ok(comments);
     }
 
+    @GetMapping(COMMENTS_FOR_POST_SCROLL_ENDPOINT)
+    public ResponseEntity<CursorPage<CommentResponse>> getCommentThread(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size)
+    {
+        // EntityNotFoundException -> 404
+        // Invalid cursor -> IllegalArgumentException -> 400
+        CursorPage<CommentResponse> comments = commentService.getCommentThread(postId, cursor, size);
+        return ResponseEntity.ok(comments);
+    }
+
     @DeleteMapping(COMMENT_BY_ID_OPERATIONS_ENDPOINT)
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<MessageResponse> deleteComment(@PathVariable Long commentId) {
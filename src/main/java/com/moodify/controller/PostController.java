@@ -1,5 +1,6 @@
 package com.moodify.controller;
 
+import com.moodify.dto.CursorPage;
 import com.moodify.dto.MessageResponse;
 import com.moodify.dto.PostCreateRequest;
 import com.moodify.dto.PostResponse;
@@ -45,6 +46,16 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping(POST_FEED_SCROLL_ENDPOINT)
+    public ResponseEntity<CursorPage<PostResponse>> getPostsFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size)
+    {
+        // Invalid cursor -> IllegalArgumentException -> 400
+        CursorPage<PostResponse> posts = postService.getPostsFeed(cursor, size);
+        return ResponseEntity.ok(posts);
+    }
+
     @GetMapping(POST_BY_ID_ENDPOINT)
     public ResponseEntity<PostResponse> getPostById(@PathVariable Long postId) {
         // EntityNotFoundException will be processed RestExceptionHandler -> 404
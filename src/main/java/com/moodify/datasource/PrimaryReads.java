@@ -0,0 +1,43 @@
+package com.moodify.datasource;
+
+import java.util.function.Supplier;
+
+// Reads that must see the primary even inside a read-only transaction (see ReplicaDataSource):
+// loads whose results are cached, where a lagging replica's row would outlive the lag, and lookups
+// that must see a write made just before by a request without a user, such as the login after a registration.
+// The transaction has to start inside run(), or at least take its connection there; tasks handed to an
+// executor inherit the requirement when the executor decorates them with propagate().
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T run(Supplier<T> reads) {
+        if (Boolean.TRUE.equals(REQUIRED.get())) {
+            return reads.get();
+        }
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            REQUIRED.remove();
+        }
+    }
+
+    // Wraps a task handed to another thread so its reads also go to the primary
+    public static Runnable propagate(Runnable task) {
+        if (!isRequired()) {
+            return task;
+        }
+        return () -> run(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static boolean isRequired() {
+        return Boolean.TRUE.equals(REQUIRED.get());
+    }
+}
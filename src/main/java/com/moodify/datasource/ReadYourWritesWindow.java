@@ -0,0 +1,72 @@
+package com.moodify.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Remembers who wrote to the primary recently, so that their reads skip the (possibly lagging) replicas
+// for `window` after their last read-write transaction commits. Who is decided by the key supplier, e.g. the
+// current user's id; a null key (background work, requests without a user) is never tracked.
+public class ReadYourWritesWindow {
+
+    private static final long MAX_TRACKED_KEYS = 100_000;
+
+    private final Cache<Object, Boolean> recentWriters;
+    private final Supplier<Object> currentKey;
+
+    public ReadYourWritesWindow(Duration window, Supplier<Object> currentKey) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterWrite(window)
+                .build();
+        this.currentKey = currentKey;
+    }
+
+    public boolean isActive() {
+        Object key = currentKey.get();
+        return key != null && recentWriters.getIfPresent(key) != null;
+    }
+
+    // The primary, recording the current key when a read-write transaction that took a connection from it commits
+    public DataSource trackingWrites(DataSource primary) {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                recordIfWriting();
+                return super.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                recordIfWriting();
+                return super.getConnection(username, password);
+            }
+        };
+    }
+
+    private void recordIfWriting() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Object key = currentKey.get();
+        if (key != null) {
+            // The window starts when the write becomes visible, so a long transaction cannot use it up,
+            // and a rolled back one does not open it
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(key, Boolean.TRUE);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.moodify.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Connections for read-only transactions: round-robin over the replicas that passed their last health check.
+// Falls back to the primary when every replica is down or lagging, while the current user is inside
+// their read-your-writes window, and for PrimaryReads. A replica whose connection fails is taken out of rotation until the next
+// health check finds it healthy again.
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    // Seconds the replica is behind the primary; 0 when it has replayed everything it received (or is not a standby).
+    // Otherwise the age of the last replayed transaction, which overstates the lag while the primary is idle.
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_replay_lsn() >= pg_last_wal_receive_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    public record Replica(String name, DataSource dataSource) {
+    }
+
+    private static final class ReplicaState {
+        private final Replica replica;
+        private volatile boolean healthy = true;
+
+        private ReplicaState(Replica replica) {
+            this.replica = replica;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<ReplicaState> replicas;
+    private final ReadYourWritesWindow readYourWrites;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService healthChecker;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder requiredPrimaryReads = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+
+    public ReplicaDataSource(DataSource primary, List<Replica> replicas, ReadYourWritesWindow readYourWrites,
+                             Duration healthCheckInterval, double maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(ReplicaState::new).toList();
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLagSeconds;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-health").daemon().factory());
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PrimaryReads.isRequired()) {
+            requiredPrimaryReads.increment();
+            return primary.getConnection();
+        }
+        if (readYourWrites.isActive()) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaState state = replicas.get((start + i) % replicas.size());
+            if (!state.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = state.replica.dataSource().getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                state.healthy = false;
+                log.warn("Replica '{}' taken out of rotation: {}", state.replica.name(), e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Replica connections use the configured credentials");
+    }
+
+    private void checkHealth() {
+        for (ReplicaState state : replicas) {
+            boolean healthy;
+            try (Connection connection = state.replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(LAG_SQL)) {
+                lag.next();
+                double lagSeconds = lag.getDouble(1);
+                healthy = lagSeconds <= maxLagSeconds;
+                if (!healthy && state.healthy) {
+                    log.warn("Replica '{}' is {} s behind the primary, reads go elsewhere", state.replica.name(), lagSeconds);
+                }
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+                if (state.healthy) {
+                    log.warn("Replica '{}' failed its health check: {}", state.replica.name(), e.getMessage());
+                }
+            }
+            if (healthy && !state.healthy) {
+                log.info("Replica '{}' is healthy again", state.replica.name());
+            }
+            state.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ReplicaState state : replicas) {
+            // Replica pools are not beans, so their ConnectionLimitingDataSource meters are bound from here
+            if (state.replica.dataSource() instanceof MeterBinder binder) {
+                binder.bindTo(registry);
+            }
+            Gauge.builder("moodify.db.replica.healthy", state, s -> s.healthy ? 1 : 0)
+                    .description("Whether the replica is in the read rotation")
+                    .tag("replica", state.replica.name())
+                    .register(registry);
+        }
+        // Connections handed out for read-only transactions, by where they came from
+        FunctionCounter.builder("moodify.db.readonly.connections", replicaReads, LongAdder::sum)
+                .tag("target", "replica").register(registry);
+        FunctionCounter.builder("moodify.db.readonly.connections", stickyReads, LongAdder::sum)
+                .tag("target", "primary-read-your-writes").register(registry);
+        FunctionCounter.builder("moodify.db.readonly.connections", requiredPrimaryReads, LongAdder::sum)
+                .tag("target", "primary-required").register(registry);
+        FunctionCounter.builder("moodify.db.readonly.connections", fallbackReads, LongAdder::sum)
+                .tag("target", "primary-fallback").register(registry);
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (ReplicaState state : replicas) {
+            // The replica's pool, possibly behind a ConnectionLimitingDataSource
+            DataSource dataSource = state.replica.dataSource();
+            try {
+                if (dataSource.isWrapperFor(AutoCloseable.class)) {
+                    dataSource.unwrap(AutoCloseable.class).close();
+                }
+            } catch (Exception e) {
+                log.warn("Failed to close replica '{}': {}", state.replica.name(), e.getMessage());
+            }
+        }
+    }
+}
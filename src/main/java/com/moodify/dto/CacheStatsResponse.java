@@ -0,0 +1,21 @@
+package com.moodify.dto;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class CacheStatsResponse {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount; // Size/TTL evictions
+    private long invalidationCount; // Entries dropped because the underlying data changed
+    private double averageStalenessMs; // Average age of entries when served from the cache
+    private long maxStalenessMs;
+}
@@ -0,0 +1,31 @@
+package com.moodify.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.function.Function;
+
+// A slice of a keyset-paginated list. There is no total count: clients keep requesting
+// with nextCursor until hasNext is false.
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+
+    // Builds a page from rows fetched with limit pageSize + 1; the extra row only signals that there is a next page
+    public static <E, T> CursorPage<T> of(List<E> rows, int pageSize,
+                                          Function<E, KeysetCursor> cursorOf,
+                                          Function<E, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor, hasNext, pageSize);
+    }
+}
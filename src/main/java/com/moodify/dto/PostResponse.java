@@ -15,8 +15,13 @@ public class PostResponse {
     private String content;
     private LocalDateTime createdAt;
     private AuthorDto author;
+    @With
     private long likeCount;
     private long commentCount;
 
     private String songUrl;
+
+    // Whether the current user liked the post; null for anonymous requests
+    @With
+    private Boolean likedByMe;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.moodify.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class UserPurgeJobResponse {
+    private String jobId;
+    private Long userId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private String phase; // What is being deleted right now
+    private long deletedPosts;
+    private long deletedComments;
+    private long deletedLikes;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
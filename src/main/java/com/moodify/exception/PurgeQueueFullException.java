@@ -0,0 +1,15 @@
+package com.moodify.exception;
+
+import lombok.Getter;
+
+// The user purge queue is full: the request was valid, the server is busy (503 with Retry-After)
+@Getter
+public class PurgeQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PurgeQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,124 @@
+package com.moodify.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+// Per-request SQL statement budget.
+// Runs outside the security filters, so token checks are counted too. Requests that run more
+// statements than moodify.app.sqlBudget.maxStatements are logged with their most repeated
+// statement. Outside prod the count is also returned in the X-SQL-Statement-Count header.
+// Every count is recorded in the moodify.sql.statements summary, tagged with method and endpoint.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+
+    // Longest SQL text written to the log
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    @Value("${moodify.app.sqlBudget.maxStatements:10}")
+    private int maxStatements;
+
+    @Value("${moodify.app.sqlBudget.exposeHeader:false}")
+    private boolean exposeHeader;
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementBudgetFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Statements statements = SqlStatementCounter.start();
+        HttpServletResponse countedResponse = exposeHeader ? new StatementCountResponse(response, statements) : response;
+        try {
+            filterChain.doFilter(request, countedResponse);
+            if (exposeHeader && !response.isCommitted()) {
+                response.setIntHeader(STATEMENT_COUNT_HEADER, statements.total());
+            }
+        } finally {
+            SqlStatementCounter.stop();
+            recordMetric(request, statements);
+            checkBudget(request, statements);
+        }
+    }
+
+    private void recordMetric(HttpServletRequest request, SqlStatementCounter.Statements statements) {
+        // The endpoint pattern, not the raw URI, keeps the number of series bounded
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("moodify.sql.statements")
+                .description("SQL statements run by Hibernate per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(statements.total());
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementCounter.Statements statements) {
+        int total = statements.total();
+        if (total <= maxStatements) {
+            return;
+        }
+        Map.Entry<String, Integer> mostRepeated = statements.mostRepeated().orElse(Map.entry("", 0));
+        String sql = mostRepeated.getKey();
+        log.warn("SQL statement budget exceeded: {} {} ran {} statements (budget {}); most repeated ({}x): {}",
+                request.getMethod(), request.getRequestURI(), total, maxStatements, mostRepeated.getValue(),
+                sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : sql);
+    }
+
+    // Adds the header just before the body is written, the last moment headers can still be set.
+    // By then the controller and the services have finished, so the count is final.
+    private static final class StatementCountResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementCounter.Statements statements;
+
+        StatementCountResponse(HttpServletResponse response, SqlStatementCounter.Statements statements) {
+            super(response);
+            this.statements = statements;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addCountHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addCountHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addCountHeader();
+            super.flushBuffer();
+        }
+
+        private void addCountHeader() {
+            if (!isCommitted()) {
+                setIntHeader(STATEMENT_COUNT_HEADER, statements.total());
+            }
+        }
+    }
+}
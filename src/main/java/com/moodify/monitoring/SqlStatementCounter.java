@@ -0,0 +1,99 @@
+package com.moodify.monitoring;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Counts the SQL statements issued on behalf of the current HTTP request.
+// Started and stopped by SqlStatementBudgetFilter; fed by SqlStatementInspector, and by record() for
+// statements that bypass Hibernate.
+// Statements issued outside a request (scheduled jobs, background purges) are not counted;
+// tasks a request hands to an executor are, when the executor decorates them with propagate().
+public final class SqlStatementCounter {
+
+    // Distinct statements tracked per request; enough to spot an N+1, bounded for pathological requests
+    private static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    private static final ThreadLocal<Statements> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Statements start() {
+        Statements statements = new Statements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    // The statements of the current request, or null outside a request
+    public static Statements current() {
+        return CURRENT.get();
+    }
+
+    // Wraps a task handed to another thread so its statements count towards the submitting request
+    public static Runnable propagate(Runnable task) {
+        Statements statements = CURRENT.get();
+        if (statements == null) {
+            return task;
+        }
+        return () -> {
+            Statements previous = CURRENT.get();
+            CURRENT.set(statements);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    public static void record(String sql) {
+        Statements statements = CURRENT.get();
+        if (statements != null) {
+            statements.record(sql);
+        }
+    }
+
+    public static final class Statements {
+        private final AtomicInteger total = new AtomicInteger();
+        private final Map<String, AtomicInteger> bySql = new ConcurrentHashMap<>();
+
+        void record(String sql) {
+            total.incrementAndGet();
+            AtomicInteger count = bySql.get(sql);
+            if (count == null && bySql.size() < MAX_DISTINCT_STATEMENTS) {
+                count = bySql.computeIfAbsent(sql, key -> new AtomicInteger());
+            }
+            if (count != null) {
+                count.incrementAndGet();
+            }
+        }
+
+        public int total() {
+            return total.get();
+        }
+
+        // The distinct statements recorded (at most MAX_DISTINCT_STATEMENTS of them)
+        public Set<String> distinct() {
+            return Set.copyOf(bySql.keySet());
+        }
+
+        // The statement run most often; executed many times in one request it is the usual N+1 signature
+        public Optional<Map.Entry<String, Integer>> mostRepeated() {
+            return bySql.entrySet().stream()
+                    .max(Comparator.comparingInt(entry -> entry.getValue().get()))
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue().get()));
+        }
+    }
+}
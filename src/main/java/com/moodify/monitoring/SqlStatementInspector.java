@@ -0,0 +1,26 @@
+package com.moodify.monitoring;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+// Sees every statement Hibernate prepares (JPQL, derived and native queries, entity writes) and
+// counts it for the current request. JdbcTemplate statements do not go through Hibernate: the one that
+// runs on request threads, SequenceIdAllocator's nextval, records itself; the others run in the
+// background (like flushes, seeding) and are not counted.
+@Component
+public class SqlStatementInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.record(sql);
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+}
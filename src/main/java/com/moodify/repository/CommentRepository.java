@@ -1,19 +1,100 @@
 package com.moodify.repository;
 
 import com.moodify.model.Comment;
+import com.moodify.repository.projection.CommentRow;
+import com.moodify.repository.projection.CommentThreadRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> { // <Comment, Long - тип ID комментария>
 
-    Page<Comment> findByPostIdOrderByCreatedAtAsc(Long postId, Pageable pageable);
+    @Query(value = "SELECT new com.moodify.repository.projection.CommentRow(" +
+            "c.id, c.content, c.createdAt, u.id, u.username) " +
+            "FROM Comment c LEFT JOIN c.user u " +
+            "WHERE c.post.id = :postId " +
+            "ORDER BY c.createdAt ASC",
+            countQuery = "SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId")
+    Page<CommentRow> findRowsByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    // Keyset pagination over (createdAt, id). Driven from the post so that a missing post
+    // is detected from the (empty) result itself, without a separate existence query.
+    @Query("SELECT new com.moodify.repository.projection.CommentThreadRow(" +
+            "p.id, c.id, c.content, c.createdAt, u.id, u.username) " +
+            "FROM Post p LEFT JOIN Comment c ON c.post = p LEFT JOIN c.user u " +
+            "WHERE p.id = :postId " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentThreadRow> findThreadFirstPage(@Param("postId") Long postId, Limit limit);
+
+    @Query("SELECT new com.moodify.repository.projection.CommentThreadRow(" +
+            "p.id, c.id, c.content, c.createdAt, u.id, u.username) " +
+            "FROM Post p LEFT JOIN Comment c ON c.post = p AND (c.createdAt, c.id) > (:createdAt, :id) " +
+            "LEFT JOIN c.user u " +
+            "WHERE p.id = :postId " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentThreadRow> findThreadPageAfter(@Param("postId") Long postId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Limit limit);
 
     long countByPostId(Long postId);
 
+    // Deletes the comment if it belongs to the user (or unconditionally for an admin) and returns its post id;
+    // empty if nothing was deleted. The post row is locked before the comment row, the order deletePost and
+    // createComment take them in, so a comment delete cannot deadlock with a post delete.
+    @Query(value = """
+            WITH locked AS (
+                SELECT p.id FROM posts p JOIN comments c ON c.post_id = p.id
+                WHERE c.id = :commentId FOR UPDATE OF p)
+            DELETE FROM comments
+            WHERE id = :commentId AND post_id = (SELECT id FROM locked) AND (user_id = :userId OR :admin)
+            RETURNING post_id
+            """, nativeQuery = true)
+    Optional<Long> deleteOwnedComment(@Param("commentId") Long commentId,
+                                      @Param("userId") Long userId,
+                                      @Param("admin") boolean admin);
+
+    // --- Set-based deletes: one statement each, no entities loaded ---
+
     @Transactional
-    void deleteByUserId(Long userId);
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    // --- Bounded batches for the user purge job; each call deletes at most batchSize rows ---
+
+    // Comments under posts of the given author. The posts are deleted afterwards, so their counters are left alone.
+    @Modifying
+    @Query(value = """
+            DELETE FROM comments WHERE id IN (
+                SELECT c.id FROM comments c JOIN posts p ON p.id = c.post_id
+                WHERE p.user_id = :authorId LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteBatchOnPostsOfAuthor(@Param("authorId") Long authorId, @Param("batchSize") int batchSize);
+
+    // Comments made by the user, with the comment_count of every affected post lowered in the same statement.
+    // The posts are locked first, as in deletePost.
+    @Query(value = """
+            WITH batch AS (SELECT id, post_id FROM comments WHERE user_id = :userId LIMIT :batchSize),
+            locked AS (SELECT id FROM posts WHERE id IN (SELECT post_id FROM batch) ORDER BY id FOR UPDATE),
+            deleted AS (
+                DELETE FROM comments WHERE id IN (SELECT id FROM batch) AND post_id IN (SELECT id FROM locked)
+                RETURNING post_id),
+            adjusted AS (
+                UPDATE posts p SET comment_count = p.comment_count - d.n
+                FROM (SELECT post_id, COUNT(*) AS n FROM deleted GROUP BY post_id) d
+                WHERE p.id = d.post_id)
+            SELECT COUNT(*) FROM deleted
+            """, nativeQuery = true)
+    long deleteBatchByUserAdjustingCounts(@Param("userId") Long userId, @Param("batchSize") int batchSize);
 }
\ No newline at end of file
@@ -1,9 +1,16 @@
 package com.moodify.repository;
 
 import com.moodify.model.Like;
+import com.moodify.repository.projection.LikeToggleResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> { // <Like, Long - тип ID лайка>
@@ -12,9 +19,80 @@ public interface LikeRepository extends JpaRepository<Like, Long> { // <Like, Lo
 
     long countByPostId(Long postId);
 
-    @Transactional
-    void deleteByUserIdAndPostId(Long userId, Long postId);
+    // "Liked by me" for a whole page of posts in one query
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    Set<Long> findPostIdsLikedByUser(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    // --- Set-based deletes: one statement each, no entities loaded ---
 
     @Transactional
-    void deleteByUserId(Long userId);
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    // --- Bounded batches for the user purge job; each call deletes at most batchSize rows ---
+
+    // Likes under posts of the given author. The posts are deleted afterwards, so their counters are left alone.
+    @Modifying
+    @Query(value = """
+            DELETE FROM likes WHERE id IN (
+                SELECT l.id FROM likes l JOIN posts p ON p.id = l.post_id
+                WHERE p.user_id = :authorId LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteBatchOnPostsOfAuthor(@Param("authorId") Long authorId, @Param("batchSize") int batchSize);
+
+    // Likes made by the user, with the like_count of every affected post lowered in the same statement.
+    // The posts are locked first, as in deletePost.
+    @Query(value = """
+            WITH batch AS (SELECT id, post_id FROM likes WHERE user_id = :userId LIMIT :batchSize),
+            locked AS (SELECT id FROM posts WHERE id IN (SELECT post_id FROM batch) ORDER BY id FOR UPDATE),
+            deleted AS (
+                DELETE FROM likes WHERE id IN (SELECT id FROM batch) AND post_id IN (SELECT id FROM locked)
+                RETURNING post_id),
+            adjusted AS (
+                UPDATE posts p SET like_count = p.like_count - d.n
+                FROM (SELECT post_id, COUNT(*) AS n FROM deleted GROUP BY post_id) d
+                WHERE p.id = d.post_id)
+            SELECT COUNT(*) FROM deleted
+            """, nativeQuery = true)
+    long deleteBatchByUserAdjustingCounts(@Param("userId") Long userId, @Param("batchSize") int batchSize);
+
+    // Like and read the new count in one round trip. A repeated or concurrent duplicate click hits
+    // ON CONFLICT DO NOTHING instead of the unique constraint, and then leaves the posts row untouched.
+    // Empty if the post does not exist. The id comes from SequenceIdAllocator on likes_seq, the entity's sequence.
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO likes (id, user_id, post_id, created_at)
+                SELECT :id, :userId, p.id, now() FROM posts p WHERE p.id = :postId
+                ON CONFLICT (user_id, post_id) DO NOTHING
+                RETURNING post_id),
+            updated AS (
+                UPDATE posts SET like_count = like_count + 1
+                WHERE id = :postId AND EXISTS (SELECT 1 FROM inserted)
+                RETURNING like_count)
+            SELECT like_count AS likeCount, true AS changed FROM updated
+            UNION ALL
+            SELECT like_count AS likeCount, false AS changed FROM posts
+            WHERE id = :postId AND NOT EXISTS (SELECT 1 FROM inserted)
+            """, nativeQuery = true)
+    Optional<LikeToggleResult> insertLikeReturningCount(@Param("id") long id, @Param("userId") Long userId, @Param("postId") Long postId);
+
+    // Unlike counterpart of insertLikeReturningCount; a missing like is a no-op. Empty if the post does not exist.
+    // The post row is locked before the like row is deleted, the order deletePost takes them in, so an unlike
+    // cannot deadlock with a post delete; a post deleted while the unlike waited for it is reported missing.
+    @Query(value = """
+            WITH locked AS (SELECT id, like_count FROM posts WHERE id = :postId FOR UPDATE),
+            deleted AS (
+                DELETE FROM likes WHERE user_id = :userId AND post_id = (SELECT id FROM locked)
+                RETURNING post_id),
+            updated AS (
+                UPDATE posts SET like_count = like_count - 1
+                WHERE id = :postId AND EXISTS (SELECT 1 FROM deleted)
+                RETURNING like_count)
+            SELECT like_count AS likeCount, true AS changed FROM updated
+            UNION ALL
+            SELECT like_count AS likeCount, false AS changed FROM locked
+            WHERE NOT EXISTS (SELECT 1 FROM deleted)
+            """, nativeQuery = true)
+    Optional<LikeToggleResult> deleteLikeReturningCount(@Param("userId") Long userId, @Param("postId") Long postId);
 }
\ No newline at end of file
@@ -1,18 +1,109 @@
 package com.moodify.repository;
 
 import com.moodify.model.Post;
-import org.springframework.data.domain.Page;
+import com.moodify.repository.projection.PostRow;
+import com.moodify.repository.projection.UpdatedPostRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user ORDER BY p.createdAt DESC")
-    Page<Post> findAllWithUserOrderByCreatedAtDesc(Pageable pageable);
+    // Read paths select only the columns PostResponse needs: no managed entities and no EAGER user roles
+    String POST_ROW = "SELECT new com.moodify.repository.projection.PostRow(" +
+            "p.id, p.content, p.songUrl, p.createdAt, u.id, u.username, p.likeCount, p.commentCount) " +
+            "FROM Post p LEFT JOIN p.user u ";
 
-    List<Post> findByUserId(Long userId);
+    // A page of rows without its count query; PostService runs the count concurrently
+    @Query(POST_ROW + "ORDER BY p.createdAt DESC")
+    List<PostRow> findPostRows(Pageable pageable);
+
+    // Keyset pagination: no OFFSET and no COUNT, cost does not depend on how deep the client has scrolled
+    @Query(POST_ROW + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostRow> findPostRowsFirstPage(Limit limit);
+
+    @Query(POST_ROW +
+            "WHERE (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostRow> findPostRowsBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(POST_ROW + "WHERE p.id = :postId")
+    Optional<PostRow> findPostRowById(@Param("postId") Long postId);
+
+    // Author of the post, row-locked until commit: concurrent likes and comments wait for a delete to finish
+    @Query(value = "SELECT user_id FROM posts WHERE id = :postId FOR UPDATE", nativeQuery = true)
+    Optional<Long> findAuthorIdForUpdate(@Param("postId") Long postId);
+
+    // Bulk deletes; likes and comments of the posts must be deleted first
+    @Modifying
+    @Query("DELETE FROM Post p WHERE p.id = :postId")
+    int deletePostById(@Param("postId") Long postId);
+
+    // A batch of the author's posts. Likes and comments added to these posts since their bulk deletion
+    // are removed in the same statement.
+    @Query(value = """
+            WITH batch AS (SELECT id FROM posts WHERE user_id = :authorId LIMIT :batchSize),
+            likes_deleted AS (DELETE FROM likes WHERE post_id IN (SELECT id FROM batch)),
+            comments_deleted AS (DELETE FROM comments WHERE post_id IN (SELECT id FROM batch)),
+            posts_deleted AS (DELETE FROM posts WHERE id IN (SELECT id FROM batch) RETURNING id)
+            SELECT COUNT(*) FROM posts_deleted
+            """, nativeQuery = true)
+    long deleteBatchByAuthorId(@Param("authorId") Long authorId, @Param("batchSize") int batchSize);
+
+    // --- Write paths with the ownership check in the WHERE clause ---
+
+    // Updates and returns the post in one round trip; empty if the post does not exist or is not the user's
+    @Query(value = """
+            UPDATE posts SET content = :content, song_url = :songUrl
+            WHERE id = :postId AND user_id = :userId
+            RETURNING id, content, song_url AS songUrl, created_at AS createdAt,
+                      like_count AS likeCount, comment_count AS commentCount
+            """, nativeQuery = true)
+    Optional<UpdatedPostRow> updateOwnedPost(@Param("postId") Long postId,
+                                             @Param("userId") Long userId,
+                                             @Param("content") String content,
+                                             @Param("songUrl") String songUrl);
+
+    // --- Denormalized counters ---
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findLikeCountById(@Param("postId") Long postId);
+
+    // Returns the new counter value in the same round trip, empty if the post does not exist
+    @Query(value = "UPDATE posts SET comment_count = comment_count + :delta WHERE id = :postId RETURNING comment_count",
+            nativeQuery = true)
+    Optional<Long> adjustCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Query("SELECT MAX(p.id) FROM Post p")
+    Optional<Long> findMaxId();
+
+    // Row-locks the posts with ids in [fromId, toId]; likes and comments update the counter of their post
+    // in the same transaction, so once this returns none of them is in flight for the range until commit
+    @Query(value = "SELECT id FROM posts WHERE id BETWEEN :fromId AND :toId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Recomputes counters for posts with ids in [fromId, toId], touching only rows that drifted.
+    // Must run after lockIdRange in the same transaction: under READ COMMITTED the statement's snapshot is taken
+    // when it starts, and a like committed after that would otherwise be overwritten with a stale count.
+    @Modifying
+    @Query(value = """
+            UPDATE posts p
+            SET like_count = t.likes, comment_count = t.comments
+            FROM (SELECT p2.id,
+                         (SELECT COUNT(*) FROM likes l WHERE l.post_id = p2.id) AS likes,
+                         (SELECT COUNT(*) FROM comments c WHERE c.post_id = p2.id) AS comments
+                  FROM posts p2
+                  WHERE p2.id BETWEEN :fromId AND :toId) t
+            WHERE p.id = t.id
+              AND (p.like_count <> t.likes OR p.comment_count <> t.comments)
+            """, nativeQuery = true)
+    int reconcileCountersInRange(@Param("fromId") long fromId, @Param("toId") long toId);
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.moodify.repository;
+
+import com.moodify.monitoring.SqlStatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Ids for rows inserted with SQL instead of through the entities, taken from the entity's sequence
+// the way Hibernate's pooled optimizer does it: nextval returns hi and reserves the block hi - 49 .. hi,
+// so one round trip serves INCREMENT BY (50) ids. Blocks are never shared with Hibernate's own optimizer.
+@Component
+public class SequenceIdAllocator {
+
+    // INCREMENT BY of the id sequences (V2__id_sequences.sql) and allocationSize of the entities
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long nextId(String sequence) {
+        return nextIds(sequence, 1)[0];
+    }
+
+    // The remainder of the current block first, then as many new blocks as needed
+    public long[] nextIds(String sequence, int count) {
+        Block block = blocks.computeIfAbsent(sequence, name -> new Block());
+        long[] ids = new long[count];
+        // A lock rather than synchronized: nextval inside would pin a virtual thread to its carrier
+        block.lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                if (block.next > block.hi) {
+                    String sql = "SELECT nextval('" + sequence + "')";
+                    // Not prepared by Hibernate, so counted here (LikeService calls this on request threads)
+                    SqlStatementCounter.record(sql);
+                    long hi = jdbcTemplate.queryForObject(sql, Long.class);
+                    block.next = hi - ALLOCATION_SIZE + 1;
+                    block.hi = hi;
+                }
+                ids[i] = block.next++;
+            }
+        } finally {
+            block.lock.unlock();
+        }
+        return ids;
+    }
+
+    private static final class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long hi = 0;
+    }
+}
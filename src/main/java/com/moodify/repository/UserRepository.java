@@ -1,9 +1,18 @@
 package com.moodify.repository;
 
 import com.moodify.model.User;
+import com.moodify.repository.projection.UserRoleRow;
+import com.moodify.repository.projection.UserRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,9 +21,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Search for a user by name (for login and UserDetailsService)
     Optional<User> findByUsername(String username);
 
+    // First step of a user purge: the user's tokens stop working while the content is being deleted
+    @Modifying
+    @Query("UPDATE User u SET u.enabled = false WHERE u.id = :id")
+    int disableById(@Param("id") Long id);
+
+    @Query("SELECT u.enabled FROM User u WHERE u.id = :id")
+    Optional<Boolean> findEnabledById(@Param("id") Long id);
+
     // Checking the existence of a user by name (for registration)
     Boolean existsByUsername(String username);
 
     // Checking the user's existence by email (for registration)
     Boolean existsByEmail(String email);
+
+    // Admin listing without entity hydration; roles come from findRolesByUserIds in one extra query per page
+    @Query(value = "SELECT new com.moodify.repository.projection.UserRow(u.id, u.username, u.email, u.enabled, u.createdAt) " +
+            "FROM User u",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserRow> findUserRows(Pageable pageable);
+
+    @Query("SELECT new com.moodify.repository.projection.UserRoleRow(u.id, r.name) " +
+            "FROM User u JOIN u.roles r WHERE u.id IN :userIds")
+    List<UserRoleRow> findRolesByUserIds(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.moodify.repository.projection;
+
+import java.time.LocalDateTime;
+
+// The columns of a comment and its author that CommentResponse needs
+public record CommentRow(Long id,
+                         String content,
+                         LocalDateTime createdAt,
+                         Long authorId,
+                         String authorUsername) {
+}
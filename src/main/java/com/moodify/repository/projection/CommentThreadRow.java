@@ -0,0 +1,13 @@
+package com.moodify.repository.projection;
+
+import java.time.LocalDateTime;
+
+// One row of a post's comment thread, read with a LEFT JOIN from the post:
+// no rows means the post does not exist, a single row with a null commentId means the thread page is empty.
+public record CommentThreadRow(Long postId,
+                               Long commentId,
+                               String content,
+                               LocalDateTime createdAt,
+                               Long authorId,
+                               String authorUsername) {
+}
@@ -0,0 +1,10 @@
+package com.moodify.repository.projection;
+
+// Result of a single-statement like/unlike: the post's like_count after the statement,
+// and whether a like row was actually inserted or deleted (false for a repeated click).
+public interface LikeToggleResult {
+
+    long getLikeCount();
+
+    boolean getChanged();
+}
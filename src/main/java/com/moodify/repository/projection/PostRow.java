@@ -0,0 +1,14 @@
+package com.moodify.repository.projection;
+
+import java.time.LocalDateTime;
+
+// The columns of a post and its author that PostResponse needs, read without hydrating entities
+public record PostRow(Long id,
+                      String content,
+                      String songUrl,
+                      LocalDateTime createdAt,
+                      Long authorId,
+                      String authorUsername,
+                      long likeCount,
+                      long commentCount) {
+}
@@ -0,0 +1,19 @@
+package com.moodify.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Row returned by the conditional post update (UPDATE ... RETURNING)
+public interface UpdatedPostRow {
+
+    Long getId();
+
+    String getContent();
+
+    String getSongUrl();
+
+    LocalDateTime getCreatedAt();
+
+    long getLikeCount();
+
+    long getCommentCount();
+}
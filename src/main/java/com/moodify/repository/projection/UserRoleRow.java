@@ -0,0 +1,6 @@
+package com.moodify.repository.projection;
+
+import com.moodify.model.ERole;
+
+public record UserRoleRow(Long userId, ERole role) {
+}
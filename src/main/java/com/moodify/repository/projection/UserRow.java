@@ -0,0 +1,11 @@
+package com.moodify.repository.projection;
+
+import java.time.LocalDateTime;
+
+// User columns for the admin listing; roles are read separately for the whole page (UserRoleRow)
+public record UserRow(Long id,
+                      String username,
+                      String email,
+                      boolean enabled,
+                      LocalDateTime createdAt) {
+}
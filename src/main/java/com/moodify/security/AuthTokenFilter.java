@@ -1,6 +1,9 @@
 package com.moodify.security;
 
 import com.moodify.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,17 +17,34 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
 
     @Autowired
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService, UserStatusCache userStatusCache,
+                           MeterRegistry meterRegistry) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.userStatusCache = userStatusCache;
+        this.validTokenTimer = jwtVerificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = jwtVerificationTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer jwtVerificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("moodify.jwt.verification")
+                .description("JWT signature check and claims parsing, including verified-token cache hits")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     @Override
@@ -36,23 +56,32 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             log.debug("AuthTokenFilter: Parsed JWT: {}", (jwt != null ? jwt.substring(0, Math.min(jwt.length(), 10)) + "..." : "null"));
 
             if (jwt != null) { // If the token is removed
-                boolean isValid = jwtUtils.validateJwtToken(jwt); // Check the validity
-                log.debug("AuthTokenFilter: JWT validation result: {}", isValid);
+                // One parse both verifies the token and extracts its claims
+                long verifyStart = System.nanoTime();
+                Optional<Claims> verifiedClaims = jwtUtils.verifyAndGetClaims(jwt);
+                (verifiedClaims.isPresent() ? validTokenTimer : invalidTokenTimer)
+                        .record(System.nanoTime() - verifyStart, TimeUnit.NANOSECONDS);
+                log.debug("AuthTokenFilter: JWT validation result: {}", verifiedClaims.isPresent());
 
-                if (isValid) { // If the token is valid
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                if (verifiedClaims.isPresent()) { // If the token is valid
+                    Claims claims = verifiedClaims.get();
+                    String username = claims.getSubject();
                     log.debug("AuthTokenFilter: Username from JWT: {}", username);
 
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    // Create an authentication object
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    UserDetails userDetails = loadPrincipal(claims);
+                    if (userDetails.isEnabled()) {
+                        // Create an authentication object
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(
+                                        userDetails, null, userDetails.getAuthorities());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    // Set authentication to the context
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.debug("AuthTokenFilter: Set Authentication in SecurityContext for user '{}'", username);
+                        // Set authentication to the context
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        log.debug("AuthTokenFilter: Set Authentication in SecurityContext for user '{}'", username);
+                    } else {
+                        log.warn("AuthTokenFilter: User '{}' is disabled or no longer exists, request stays unauthenticated", username);
+                    }
                 } else {
                     log.warn("AuthTokenFilter: Invalid JWT token received.");
                 }
@@ -67,6 +96,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Tokens issued with id and roles claims are trusted as-is, apart from the (cached) enabled flag.
+    // Older tokens without these claims still load the user from the database.
+    private UserDetails loadPrincipal(Claims claims) {
+        Long userId = claims.get(JwtUtils.USER_ID_CLAIM, Long.class);
+        List<?> roles = claims.get(JwtUtils.ROLES_CLAIM, List.class);
+        if (userId == null || roles == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return UserPrincipal.fromToken(userId, claims.getSubject(), roles.stream().map(String::valueOf).toList(),
+                userStatusCache.isEnabled(userId));
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -6,9 +6,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 @Slf4j
 @Component
 public class AuthenticationHelper {
@@ -20,17 +21,36 @@ public class AuthenticationHelper {
         this.userRepository = userRepository;
     }
 
-    public User getCurrentUserEntity() {
+    // The authenticated principal (id, username, roles), taken from the security context without a database query
+    public UserPrincipal getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!isAuthenticated(authentication)) {
+            log.warn("Attempted to get current user, but user is not authenticated.");
+            throw new IllegalStateException("User is not authenticated, cannot get current user.");
+        }
+        if (!(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            log.error("Unexpected principal type: {}", authentication.getPrincipal().getClass().getName());
+            throw new IllegalStateException("Unexpected principal type, cannot get current user.");
+        }
+        return principal;
+    }
+
+    // Lazy reference for foreign key assignment; does not hit the database unless its fields are read
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUser().getId());
+    }
+
+    // Id of the current user, or empty for anonymous requests (public endpoints)
+    public Optional<Long> findCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal().toString())) {
-            log.warn("Attempted to get current user entity, but user is not authenticated.");
-            throw new IllegalStateException("User is not authenticated, cannot get current user entity.");
+        if (isAuthenticated(authentication) && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal.getId());
         }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    log.error("Authenticated user '{}' not found in database.", username);
-                    return new UsernameNotFoundException("Current user '" + username + "' not found in database");
-                });
+        return Optional.empty();
+    }
+
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getPrincipal().toString());
     }
 }
\ No newline at end of file
@@ -4,26 +4,73 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 @Slf4j
 @Component
 public class JwtUtils {
+
+    // Custom claims: with these, requests are authenticated from the token alone
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+
     @Value("${moodify.app.jwtSecret}")
     private String jwtSecretString;
 
     @Value("${moodify.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
-    // Method to get the SecretKey signature key
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecretString));
+    @Value("${moodify.app.jwtCache.maxEntries:10000}")
+    private long verifiedTokenCacheSize;
+
+    // Built once: decoding the secret and building a parser on every request is pure overhead
+    private SecretKey key;
+    private JwtParser parser;
+
+    // Verified claims keyed by the SHA-256 digest of the token (raw tokens are not kept in memory).
+    // Each entry expires together with its token, so an expired token is never served from here.
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecretString));
+        parser = Jwts.parser().verifyWith(key).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        return nanosUntilExpiration(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return nanosUntilExpiration(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -33,35 +80,32 @@ public class JwtUtils {
 
         log.debug("Generating JWT for user: {}. Expiration: {}", userPrincipal.getUsername(), expiryDate);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (userPrincipal instanceof UserPrincipal principal) {
+            builder.claim(USER_ID_CLAIM, principal.getId())
+                    .claim(ROLES_CLAIM, principal.getRoleNames());
+        }
+        return builder
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key(), SignatureAlgorithm.HS512)
+                .signWith(key, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        try {
-            Claims claims = Jwts.parser()  // Get the parser builder
-                    .verifyWith(key())   // Set the key for signature verification
-                    .build()             // Build the parser
-                    .parseSignedClaims(token) // Parse signed token (JWS)
-                    .getPayload();       // Get the payload (Claims)
-            return claims.getSubject(); // Return the username from subject
-        } catch (JwtException | IllegalArgumentException e) { // Catch parsing/validation errors
-            log.error("Error parsing JWT to get username: {}", e.getMessage());
-            throw new RuntimeException("Invalid JWT token provided", e);
+    // Verifies the token and returns its claims in a single parse; empty if the token is invalid or expired
+    public Optional<Claims> verifyAndGetClaims(String authToken) {
+        String digest = digest(authToken);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return Optional.of(cached);
         }
-    }
-
-    public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parser()           // Get the parser builder
-                    .verifyWith(key())   // Set the key for signature verification
-                    .build()             // Build the parser
-                    .parseSignedClaims(authToken); // Try to parse. If successful there will be no exception
-            return true; // The token is valid
+            Claims claims = parser.parseSignedClaims(authToken).getPayload();
+            if (claims.getExpiration() != null) { // Tokens without an expiration are not cached
+                verifiedTokens.put(digest, claims);
+            }
+            return Optional.of(claims);
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -76,6 +120,20 @@ public class JwtUtils {
             log.error("General JWT exception during validation: {}", e.getMessage());
         }
 
-        return false; // If any exception was caught, the token is invalid
+        return Optional.empty(); // If any exception was caught, the token is invalid
+    }
+
+    private static long nanosUntilExpiration(Claims claims) {
+        Duration remaining = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+        return remaining.isNegative() ? 0 : remaining.toNanos();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Required on every Java platform
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.moodify.security;
+
+import com.moodify.model.ERole;
+import com.moodify.model.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import java.util.Collection;
+import java.util.List;
+
+// Authenticated user carrying its id, so request handling does not need to look the user up again.
+// Built from the database at login, and from the verified JWT claims on every other request
+// (password is then null).
+@Getter
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(Long id, String username, String password, boolean enabled, Collection<String> roles) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+    }
+
+    public static UserPrincipal fromUser(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.isEnabled(),
+                user.getRoles().stream().map(role -> role.getName().name()).toList());
+    }
+
+    public static UserPrincipal fromToken(Long id, String username, Collection<String> roles, boolean enabled) {
+        return new UserPrincipal(id, username, null, enabled, roles);
+    }
+
+    public List<String> getRoleNames() {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    public boolean isAdmin() {
+        return getRoleNames().contains(ERole.ROLE_ADMIN.name());
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
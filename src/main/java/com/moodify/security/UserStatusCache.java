@@ -0,0 +1,54 @@
+package com.moodify.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moodify.datasource.PrimaryReads;
+import com.moodify.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Short-lived cache of users' enabled flag, consulted for every request authenticated from JWT claims.
+// A disabled or deleted user is cut off within ttlSeconds, without a users query on every request.
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> enabledByUserId;
+
+    // Bumped on every invalidation
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${moodify.app.auth.userStatusCache.maxEntries:100000}") long maxEntries,
+                           @Value("${moodify.app.auth.userStatusCache.ttlSeconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.enabledByUserId = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // A user that no longer exists counts as disabled.
+    // The query runs outside the cache's compute lock (which would pin a virtual thread), so concurrent
+    // misses may each query; a result loaded across an invalidation is returned but not cached.
+    public boolean isEnabled(Long userId) {
+        Boolean cached = enabledByUserId.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generationBeforeLoad = generation.get();
+        // From the primary: a replica's stale flag would be cached for ttlSeconds
+        boolean enabled = PrimaryReads.run(() -> userRepository.findEnabledById(userId)).orElse(false);
+        if (generation.get() == generationBeforeLoad) {
+            enabledByUserId.put(userId, enabled);
+        }
+        return enabled;
+    }
+
+    public void invalidate(Long userId) {
+        generation.incrementAndGet();
+        enabledByUserId.invalidate(userId);
+    }
+}
@@ -0,0 +1,239 @@
+package com.moodify.seed;
+
+import com.moodify.repository.SequenceIdAllocator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Synthetic dataset for local load testing (profile "seed", see application-seed.properties):
+//   java -jar moodify.jar --spring.profiles.active=seed [--moodify.seed.posts=...]
+//
+// Bulk-inserts users, posts (with songUrl), comments and likes with JDBC batches, one transaction
+// per batch, then exits. Post popularity and author activity follow a Zipf distribution, so a few
+// posts collect most likes and comments, as in production. Counters are written with the posts.
+// Every seeded user has the password moodify.seed.password, for the load driver to log in with.
+@Slf4j
+@Component
+@Profile("seed")
+public class DatasetSeeder {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, username, email, password, enabled, created_at) VALUES (?, ?, ?, ?, true, ?)";
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_POST_SQL =
+            "INSERT INTO posts (id, content, song_url, created_at, like_count, comment_count, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COMMENT_SQL =
+            "INSERT INTO comments (id, content, created_at, user_id, post_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_LIKE_SQL =
+            "INSERT INTO likes (id, created_at, user_id, post_id) VALUES (?, ?, ?, ?)";
+
+    private static final String[] POST_TEXTS = {
+            "This song is my whole mood today", "On repeat since the morning", "Perfect track for a rainy evening",
+            "Can't stop listening to this one", "Throwback to the summer", "Found this gem yesterday, what do you think?",
+            "Late night vibes", "Gym playlist essential", "This bridge gives me chills every time", "Sunday morning coffee song"};
+    private static final String[] COMMENT_TEXTS = {
+            "Love it!", "Great choice", "Added to my playlist", "Not my style, but ok", "This is a classic",
+            "Thanks for sharing", "Wow", "Who is the artist?", "Same here", "Heard it live last year"};
+    private static final String TRACK_ID_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationContext applicationContext;
+
+    @Value("${moodify.seed.users:1000}")
+    private int userCount;
+
+    @Value("${moodify.seed.posts:20000}")
+    private int postCount;
+
+    @Value("${moodify.seed.comments:100000}")
+    private int commentCount;
+
+    @Value("${moodify.seed.likes:500000}")
+    private int likeCount;
+
+    @Value("${moodify.seed.zipfExponent:1.1}")
+    private double zipfExponent;
+
+    // Posts are spread over this many days before now
+    @Value("${moodify.seed.days:90}")
+    private int days;
+
+    @Value("${moodify.seed.randomSeed:42}")
+    private long randomSeed;
+
+    @Value("${moodify.seed.batchSize:1000}")
+    private int batchSize;
+
+    @Value("${moodify.seed.usernamePrefix:seed-user-}")
+    private String usernamePrefix;
+
+    @Value("${moodify.seed.password:password}")
+    private String password;
+
+    @Autowired
+    public DatasetSeeder(JdbcTemplate jdbcTemplate,
+                         SequenceIdAllocator idAllocator,
+                         PlatformTransactionManager transactionManager,
+                         PasswordEncoder passwordEncoder,
+                         ApplicationContext applicationContext) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.applicationContext = applicationContext;
+    }
+
+    // After the startup runners, so the roles exist
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAndExit() {
+        int exitCode = 0;
+        try {
+            seed();
+        } catch (RuntimeException e) {
+            log.error("Seeding failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    private void seed() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = ?",
+                Integer.class, usernamePrefix + 1);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Users '" + usernamePrefix + "N' already exist; "
+                    + "seed a fresh database or set moodify.seed.usernamePrefix");
+        }
+        Integer roleUserId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_USER'", Integer.class);
+        Random random = new Random(randomSeed);
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.nanoTime();
+        log.info("Seeding {} users, {} posts, {} comments and {} likes (Zipf exponent {})",
+                userCount, postCount, commentCount, likeCount, zipfExponent);
+
+        // Users: a single hash for all, BCrypt per user would dominate the run
+        String passwordHash = passwordEncoder.encode(password);
+        long[] userIds = idAllocator.nextIds("users_seq", userCount);
+        List<Object[]> users = new ArrayList<>(userCount);
+        List<Object[]> userRoles = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            String username = usernamePrefix + (i + 1);
+            users.add(new Object[]{userIds[i], username, username + "@seed.moodify", passwordHash,
+                    now.minusDays(days).minusMinutes(random.nextInt(60 * 24))});
+            userRoles.add(new Object[]{userIds[i], roleUserId});
+        }
+
+        // Posts: prolific authors and popular posts are picked by Zipf rank over a shuffled order
+        long[] postIds = idAllocator.nextIds("posts_seq", postCount);
+        int[] authorByRank = shuffledIndexes(userCount, random);
+        int[] postByRank = shuffledIndexes(postCount, random);
+        ZipfSampler authors = new ZipfSampler(userCount, zipfExponent);
+        ZipfSampler posts = new ZipfSampler(postCount, zipfExponent);
+        LocalDateTime[] postCreatedAt = new LocalDateTime[postCount];
+        long[] postAuthorIds = new long[postCount];
+        for (int p = 0; p < postCount; p++) {
+            postCreatedAt[p] = now.minusSeconds(random.nextInt(Math.max(1, days * 24 * 3600)));
+            postAuthorIds[p] = userIds[authorByRank[authors.sample(random)]];
+        }
+
+        // Likes: at most one per user and post
+        int[] likesPerPost = new int[postCount];
+        List<Object[]> likes = new ArrayList<>(likeCount);
+        Set<Long> likedPairs = new HashSet<>(likeCount * 2);
+        long[] likeIds = idAllocator.nextIds("likes_seq", likeCount);
+        for (int attempts = 0; likes.size() < likeCount && attempts < likeCount * 3L; attempts++) {
+            int p = postByRank[posts.sample(random)];
+            int u = random.nextInt(userCount);
+            if (likedPairs.add((long) p * userCount + u)) {
+                likes.add(new Object[]{likeIds[likes.size()], later(postCreatedAt[p], now, random), userIds[u], postIds[p]});
+                likesPerPost[p]++;
+            }
+        }
+
+        int[] commentsPerPost = new int[postCount];
+        long[] commentIds = idAllocator.nextIds("comments_seq", commentCount);
+        List<Object[]> comments = new ArrayList<>(commentCount);
+        for (int c = 0; c < commentCount; c++) {
+            int p = postByRank[posts.sample(random)];
+            comments.add(new Object[]{commentIds[c], COMMENT_TEXTS[random.nextInt(COMMENT_TEXTS.length)],
+                    later(postCreatedAt[p], now, random), userIds[random.nextInt(userCount)], postIds[p]});
+            commentsPerPost[p]++;
+        }
+
+        List<Object[]> postRows = new ArrayList<>(postCount);
+        for (int p = 0; p < postCount; p++) {
+            postRows.add(new Object[]{postIds[p], POST_TEXTS[random.nextInt(POST_TEXTS.length)] + " #" + (p + 1),
+                    songUrl(random), postCreatedAt[p], likesPerPost[p], commentsPerPost[p], postAuthorIds[p]});
+        }
+
+        insert("users", INSERT_USER_SQL, users);
+        insert("user_roles", INSERT_USER_ROLE_SQL, userRoles);
+        insert("posts", INSERT_POST_SQL, postRows);
+        insert("comments", INSERT_COMMENT_SQL, comments);
+        insert("likes", INSERT_LIKE_SQL, likes);
+        jdbcTemplate.execute("ANALYZE users, posts, comments, likes");
+
+        long rows = users.size() + userRoles.size() + postRows.size() + comments.size() + likes.size();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Seeding complete: {} rows in {} s ({} rows/s); log in as {}1 .. {}{}",
+                rows, String.format("%.1f", seconds), Math.round(rows / seconds), usernamePrefix, usernamePrefix, userCount);
+    }
+
+    private void insert(String table, String sql, List<Object[]> rows) {
+        long started = System.nanoTime();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        }
+        log.info("Inserted {} {} in {} ms", rows.size(), table, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Ids in the same pooled blocks the application uses, so seeded and live rows never collide
+    private static int[] shuffledIndexes(int n, Random random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    // A moment between the post's creation and now
+    private static LocalDateTime later(LocalDateTime createdAt, LocalDateTime now, Random random) {
+        long seconds = Duration.between(createdAt, now).getSeconds();
+        return seconds <= 0 ? now : createdAt.plusSeconds((long) (random.nextDouble() * seconds));
+    }
+
+    private static String songUrl(Random random) {
+        StringBuilder trackId = new StringBuilder("https://open.spotify.com/track/");
+        for (int i = 0; i < 22; i++) {
+            trackId.append(TRACK_ID_CHARS.charAt(random.nextInt(TRACK_ID_CHARS.length())));
+        }
+        return trackId.toString();
+    }
+}
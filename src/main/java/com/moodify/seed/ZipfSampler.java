@@ -0,0 +1,33 @@
+package com.moodify.seed;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent (Zipf's law):
+// a few items get most of the traffic, the long tail gets little. Used for post popularity and
+// author activity in the seeder and for request targets in the load driver.
+public final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Zipf sampler needs at least one item");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
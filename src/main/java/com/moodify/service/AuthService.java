@@ -1,11 +1,13 @@
 package com.moodify.service;
 
+import com.moodify.config.MetricsConfig;
 import com.moodify.dto.RegisterRequest;
 import com.moodify.model.ERole;
 import com.moodify.model.Role;
 import com.moodify.model.User;
 import com.moodify.repository.RoleRepository;
 import com.moodify.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +21,7 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AuthService {
 
     private final UserRepository userRepository;
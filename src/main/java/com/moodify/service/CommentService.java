@@ -1,49 +1,89 @@
 package com.moodify.service;
 
+import com.moodify.cache.FeedPageCache;
+import com.moodify.cache.PostResponseCache;
+import com.moodify.config.MetricsConfig;
 import com.moodify.dto.AuthorDto;
 import com.moodify.dto.CommentCreateRequest;
 import com.moodify.dto.CommentResponse;
+import com.moodify.dto.CursorPage;
+import com.moodify.dto.KeysetCursor;
 import com.moodify.model.Comment;
-import com.moodify.model.ERole;
-import com.moodify.model.Post;
-import com.moodify.model.User;
 import com.moodify.repository.CommentRepository;
 import com.moodify.repository.PostRepository;
+import com.moodify.repository.projection.CommentRow;
+import com.moodify.repository.projection.CommentThreadRow;
 import com.moodify.security.AuthenticationHelper;
+import com.moodify.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CommentService {
 
+    private static final int MAX_THREAD_PAGE_SIZE = 100;
+
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final AuthenticationHelper authenticationHelper;
+    private final FeedPageCache feedPageCache;
+    private final PostResponseCache postResponseCache;
 
     @Autowired
     public CommentService(CommentRepository commentRepository,
                           PostRepository postRepository,
-                          AuthenticationHelper authenticationHelper) {
+                          AuthenticationHelper authenticationHelper,
+                          FeedPageCache feedPageCache,
+                          PostResponseCache postResponseCache) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.authenticationHelper = authenticationHelper;
+        this.feedPageCache = feedPageCache;
+        this.postResponseCache = postResponseCache;
     }
 
-    private CommentResponse mapCommentToCommentResponse(Comment comment) {
+    // Only used for a new comment, whose author is the current user
+    private CommentResponse mapCommentToCommentResponse(Comment comment, UserPrincipal author) {
         CommentResponse dto = new CommentResponse();
         dto.setId(comment.getId());
         dto.setContent(comment.getContent());
         dto.setCreatedAt(comment.getCreatedAt());
-        User author = comment.getUser();
-        if (author != null) {
-            dto.setAuthor(new AuthorDto(author.getId(), author.getUsername()));
+        dto.setAuthor(new AuthorDto(author.getId(), author.getUsername()));
+        return dto;
+    }
+
+    private CommentResponse mapCommentRowToCommentResponse(CommentRow row) {
+        CommentResponse dto = new CommentResponse();
+        dto.setId(row.id());
+        dto.setContent(row.content());
+        dto.setCreatedAt(row.createdAt());
+        if (row.authorId() != null) {
+            dto.setAuthor(new AuthorDto(row.authorId(), row.authorUsername()));
+        } else {
+            dto.setAuthor(new AuthorDto(null, "Unknown"));
+        }
+        return dto;
+    }
+
+    private CommentResponse mapThreadRowToCommentResponse(CommentThreadRow row) {
+        CommentResponse dto = new CommentResponse();
+        dto.setId(row.commentId());
+        dto.setContent(row.content());
+        dto.setCreatedAt(row.createdAt());
+        if (row.authorId() != null) {
+            dto.setAuthor(new AuthorDto(row.authorId(), row.authorUsername()));
         } else {
             dto.setAuthor(new AuthorDto(null, "Unknown"));
         }
@@ -52,48 +92,77 @@ public class CommentService {
 
     @Transactional
     public CommentResponse createComment(Long postId, CommentCreateRequest commentDto) {
-        User currentUser = authenticationHelper.getCurrentUserEntity();
+        UserPrincipal currentUser = authenticationHelper.getCurrentUser();
         log.info("User '{}' creating comment for post {}", currentUser.getUsername(), postId);
-        Post post = postRepository.findById(postId)
+        // The counter update doubles as the existence check, and it locks the post row until commit,
+        // so the post cannot disappear before the insert. No entity is loaded: the FKs are references.
+        long commentCount = postRepository.adjustCommentCount(postId, 1)
                 .orElseThrow(() -> new EntityNotFoundException("Cannot comment. Post not found with id: " + postId));
         Comment comment = new Comment();
         comment.setContent(commentDto.getContent());
-        comment.setUser(currentUser);
-        comment.setPost(post);
-        Comment savedComment = commentRepository.save(comment);
+        comment.setUser(authenticationHelper.getCurrentUserReference());
+        comment.setPost(postRepository.getReferenceById(postId));
+        // Inserted right away for the response's createdAt; the post row is already locked, so the FK holds
+        Comment savedComment = commentRepository.saveAndFlush(comment);
+        postResponseCache.updateCommentCount(postId, commentCount);
+        feedPageCache.invalidatePagesContaining(postId);
         log.info("Comment created with id: {} for post id: {}", savedComment.getId(), postId);
-        return mapCommentToCommentResponse(savedComment);
+        return mapCommentToCommentResponse(savedComment, currentUser);
     }
 
     @Transactional(readOnly = true)
     public Page<CommentResponse> getCommentsByPost(Long postId, Pageable pageable) {
         log.debug("Fetching comments for post id: {}", postId);
-        if (!postRepository.existsById(postId)) {
+        Page<CommentRow> commentsPage = commentRepository.findRowsByPostId(postId, pageable);
+        // Only an empty page can mean a missing post, so the existence check is skipped otherwise
+        if (commentsPage.isEmpty() && !postRepository.existsById(postId)) {
             throw new EntityNotFoundException("Cannot get comments. Post not found with id: " + postId);
         }
-        Page<Comment> commentsPage = commentRepository.findByPostIdOrderByCreatedAtAsc(postId, pageable);
         log.debug("Found {} comments on page {} for post id: {}", commentsPage.getNumberOfElements(), pageable.getPageNumber(), postId);
-        return commentsPage.map(this::mapCommentToCommentResponse);
+        return commentsPage.map(this::mapCommentRowToCommentResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<CommentResponse> getCommentThread(Long postId, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_THREAD_PAGE_SIZE);
+        log.debug("Fetching comment thread for post id: {}, cursor: {}, size: {}", postId, cursor, pageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<CommentThreadRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepository.findThreadFirstPage(postId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor); // IllegalArgumentException -> 400
+            rows = commentRepository.findThreadPageAfter(postId, position.getCreatedAt(), position.getId(), limit);
+        }
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Cannot get comments. Post not found with id: " + postId);
+        }
+        // The post exists but has no comments past the cursor: the join produced a single placeholder row
+        List<CommentThreadRow> commentRows = rows.get(0).commentId() == null ? List.of() : rows;
+        return CursorPage.of(commentRows, pageSize,
+                row -> new KeysetCursor(row.createdAt(), row.commentId()),
+                this::mapThreadRowToCommentResponse);
     }
 
     @Transactional
     public void deleteComment(Long commentId) {
-        User currentUser = authenticationHelper.getCurrentUserEntity();
+        UserPrincipal currentUser = authenticationHelper.getCurrentUser();
         log.warn("User '{}' attempting to delete comment id: {}", currentUser.getUsername(), commentId);
 
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new EntityNotFoundException("Comment not found with id: " + commentId));
-
-        boolean isAdmin = currentUser.getRoles().stream()
-                .anyMatch(role -> role.getName() == ERole.ROLE_ADMIN);
-        boolean isAuthor = (comment.getUser() != null) && (comment.getUser().getId().equals(currentUser.getId()));
-
-        if (!isAuthor && !isAdmin) {
-            log.error("Access Denied: User '{}' is not authorized to delete comment id {} (author id: {})",
-                    currentUser.getUsername(), commentId, comment.getUser() != null ? comment.getUser().getId() : "null");
+        // Ownership is checked by the DELETE itself; the existence query only runs when nothing was deleted
+        boolean isAdmin = currentUser.isAdmin();
+        Optional<Long> deletedFromPost = commentRepository.deleteOwnedComment(commentId, currentUser.getId(), isAdmin);
+        if (deletedFromPost.isEmpty()) {
+            if (!commentRepository.existsById(commentId)) {
+                throw new EntityNotFoundException("Comment not found with id: " + commentId);
+            }
+            log.error("Access Denied: User '{}' is not authorized to delete comment id {}", currentUser.getUsername(), commentId);
             throw new AccessDeniedException("You are not authorized to delete this comment");
         }
-        log.info("Authorization successful. User '{}' deleting comment id: {}", currentUser.getUsername(), commentId);
-        commentRepository.delete(comment);
+        Long postId = deletedFromPost.get();
+        log.info("User '{}' deleted comment id: {} (is admin: {})", currentUser.getUsername(), commentId, isAdmin);
+        postRepository.adjustCommentCount(postId, -1)
+                .ifPresent(commentCount -> postResponseCache.updateCommentCount(postId, commentCount));
+        feedPageCache.invalidatePagesContaining(postId);
     }
 }
\ No newline at end of file
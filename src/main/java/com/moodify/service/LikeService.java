@@ -1,12 +1,16 @@
 package com.moodify.service;
 
+import com.moodify.cache.FeedPageCache;
+import com.moodify.cache.PostResponseCache;
+import com.moodify.config.MetricsConfig;
 import com.moodify.dto.LikeCountResponse;
-import com.moodify.model.Like;
-import com.moodify.model.Post;
-import com.moodify.model.User;
 import com.moodify.repository.LikeRepository;
 import com.moodify.repository.PostRepository;
+import com.moodify.repository.SequenceIdAllocator;
+import com.moodify.repository.projection.LikeToggleResult;
 import com.moodify.security.AuthenticationHelper;
+import com.moodify.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,65 +19,103 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class LikeService {
 
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
     private final AuthenticationHelper authenticationHelper;
+    private final FeedPageCache feedPageCache;
+    private final PostResponseCache postResponseCache;
+    private final LikeWriteBehindBuffer likeWriteBehindBuffer;
+    private final SequenceIdAllocator idAllocator;
 
     @Autowired
     public LikeService(LikeRepository likeRepository,
                        PostRepository postRepository,
-                       AuthenticationHelper authenticationHelper) {
+                       AuthenticationHelper authenticationHelper,
+                       FeedPageCache feedPageCache,
+                       PostResponseCache postResponseCache,
+                       LikeWriteBehindBuffer likeWriteBehindBuffer,
+                       SequenceIdAllocator idAllocator) {
         this.likeRepository = likeRepository;
         this.postRepository = postRepository;
         this.authenticationHelper = authenticationHelper;
+        this.feedPageCache = feedPageCache;
+        this.postResponseCache = postResponseCache;
+        this.likeWriteBehindBuffer = likeWriteBehindBuffer;
+        this.idAllocator = idAllocator;
     }
 
     @Transactional
     public LikeCountResponse likePost(Long postId) {
-        User currentUser = authenticationHelper.getCurrentUserEntity();
+        UserPrincipal currentUser = authenticationHelper.getCurrentUser();
         Long currentUserId = currentUser.getId();
         log.info("User id:{} ('{}') attempting to like post id: {}", currentUserId, currentUser.getUsername(), postId);
 
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new EntityNotFoundException("Cannot like post. Post not found with id: " + postId));
+        if (likeWriteBehindBuffer.isEnabled()) {
+            return recordBuffered(currentUser, postId, true);
+        }
 
-        boolean alreadyLiked = likeRepository.existsByUserIdAndPostId(currentUserId, postId);
+        LikeToggleResult result = likeRepository.insertLikeReturningCount(idAllocator.nextId("likes_seq"), currentUserId, postId)
+                .orElseThrow(() -> new EntityNotFoundException("Cannot like post. Post not found with id: " + postId));
 
-        if (!alreadyLiked) {
-            Like like = new Like();
-            like.setUser(currentUser);
-            like.setPost(post);
-            likeRepository.save(like);
+        if (result.getChanged()) {
+            feedPageCache.invalidatePagesContaining(postId);
             log.info("Like successfully added by user id:{} ('{}') for post id: {}", currentUserId, currentUser.getUsername(), postId);
         } else {
             log.warn("User id:{} ('{}') already liked post id: {}. No action taken.", currentUserId, currentUser.getUsername(), postId);
         }
 
-        long likeCount = likeRepository.countByPostId(postId);
-        return new LikeCountResponse(likeCount);
+        postResponseCache.updateLikeCount(postId, result.getLikeCount());
+        return new LikeCountResponse(result.getLikeCount());
     }
 
     @Transactional
     public LikeCountResponse unlikePost(Long postId) {
-        User currentUser = authenticationHelper.getCurrentUserEntity();
+        UserPrincipal currentUser = authenticationHelper.getCurrentUser();
         Long currentUserId = currentUser.getId();
         log.info("User id:{} ('{}') attempting to unlike post id: {}", currentUserId, currentUser.getUsername(), postId);
 
-        if (!postRepository.existsById(postId)) {
-            throw new EntityNotFoundException("Cannot unlike post. Post not found with id: " + postId);
+        if (likeWriteBehindBuffer.isEnabled()) {
+            return recordBuffered(currentUser, postId, false);
         }
 
-        boolean existed = likeRepository.existsByUserIdAndPostId(currentUserId, postId);
-        if (existed) {
-            likeRepository.deleteByUserIdAndPostId(currentUserId, postId);
+        LikeToggleResult result = likeRepository.deleteLikeReturningCount(currentUserId, postId)
+                .orElseThrow(() -> new EntityNotFoundException("Cannot unlike post. Post not found with id: " + postId));
+
+        if (result.getChanged()) {
+            feedPageCache.invalidatePagesContaining(postId);
             log.info("Like successfully removed by user id:{} ('{}') for post id: {}", currentUserId, currentUser.getUsername(), postId);
         } else {
             log.warn("User id:{} ('{}') tried to unlike post id: {}, but no like was found.", currentUserId, currentUser.getUsername(), postId);
         }
 
-        long likeCount = likeRepository.countByPostId(postId);
+        postResponseCache.updateLikeCount(postId, result.getLikeCount());
+        return new LikeCountResponse(result.getLikeCount());
+    }
+
+    // Write-behind mode: the change is answered from memory and persisted by the next buffer flush.
+    // The caches hold persisted counts only and are updated by the flush; the pending delta is added when serving.
+    private LikeCountResponse recordBuffered(UserPrincipal currentUser, Long postId, boolean liked) {
+        Long currentUserId = currentUser.getId();
+        long persistedCount = postRepository.findLikeCountById(postId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        (liked ? "Cannot like post" : "Cannot unlike post") + ". Post not found with id: " + postId));
+
+        // The database is only asked for the current state when nothing is buffered for this user and post
+        boolean persistedLiked = likeWriteBehindBuffer.pendingState(currentUserId, postId) == null
+                && likeRepository.existsByUserIdAndPostId(currentUserId, postId);
+
+        if (likeWriteBehindBuffer.record(currentUserId, postId, liked, persistedLiked)) {
+            log.info("{} buffered for user id:{} ('{}') on post id: {}",
+                    liked ? "Like" : "Unlike", currentUserId, currentUser.getUsername(), postId);
+        } else {
+            log.warn("User id:{} ('{}') {} post id: {}. No action taken.",
+                    currentUserId, currentUser.getUsername(), liked ? "already liked" : "has not liked", postId);
+        }
+
+        long likeCount = persistedCount + likeWriteBehindBuffer.pendingDelta(postId);
         return new LikeCountResponse(likeCount);
     }
 }
\ No newline at end of file
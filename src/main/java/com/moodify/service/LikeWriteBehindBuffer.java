@@ -0,0 +1,298 @@
+package com.moodify.service;
+
+import com.moodify.cache.FeedPageCache;
+import com.moodify.cache.PostResponseCache;
+import com.moodify.repository.SequenceIdAllocator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind buffer for like/unlike (opt-in: moodify.app.likes.writeBehind.enabled).
+//
+// A like or unlike is recorded in memory and answered immediately; the latest desired state per
+// (user, post) is flushed to the likes table in JDBC batches every flushIntervalMs, together with
+// the matching like_count adjustments, in one transaction per batch. Until then, reads add the
+// per-post pending delta (a striped LongAdder) to the persisted like_count when serving.
+//
+// The caches (FeedPageCache, PostResponseCache) only hold persisted counts: after a batch commits, the
+// flush writes the new like_count of its posts into them and then removes the batch from the pending deltas.
+// A response whose counts were read across a flush can be off by that batch, but it is never cached.
+//
+// The flush runs on its own scheduler thread, so a long @Scheduled job (e.g. the counter reconciliation)
+// on the shared scheduling thread cannot hold back likes.
+//
+// Durability: pending changes live only in this JVM. They are flushed on graceful shutdown, but a
+// crash or kill loses at most one flush interval of likes/unlikes. Rows and counters are always
+// written in the same transaction; the counter reconciliation that runs on startup
+// (PostCounterReconciliationJob) repairs any drift left behind. Each instance buffers its own
+// clicks, so counts served by different instances can differ by their pending deltas.
+@Slf4j
+@Component
+public class LikeWriteBehindBuffer {
+
+    private record LikeKey(Long userId, Long postId) {
+    }
+
+    // liked: the state the user asked for last; delta: net change to like_count not yet persisted
+    private record PendingLike(boolean liked, int delta) {
+    }
+
+    // Ids come from SequenceIdAllocator: nextval per row would use up a whole block of 50 ids per like
+    private static final String INSERT_LIKE_SQL =
+            "INSERT INTO likes (id, user_id, post_id, created_at) " +
+            "SELECT ?, ?, ?, now() " +
+            "WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?) AND EXISTS (SELECT 1 FROM users WHERE id = ?) " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING";
+    private static final String DELETE_LIKE_SQL = "DELETE FROM likes WHERE user_id = ? AND post_id = ?";
+    // Locks the batch's posts, in id order, before any of their likes are written: the order deletePost takes
+    // them in, so a flush cannot deadlock with a post delete
+    private static final String LOCK_POSTS_SQL = "SELECT id FROM posts WHERE id = ANY(?::bigint[]) ORDER BY id FOR UPDATE";
+    // One statement for the batch; returns the new counts for the caches
+    private static final String ADJUST_COUNTS_SQL =
+            "UPDATE posts p SET like_count = p.like_count + d.delta " +
+            "FROM unnest(?::bigint[], ?::bigint[]) AS d(post_id, delta) " +
+            "WHERE p.id = d.post_id " +
+            "RETURNING p.id, p.like_count";
+
+    // Number of flush intervals a post's counter must stay at zero before it is dropped
+    private static final int IDLE_FLUSHES_BEFORE_CLEANUP = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequenceIdAllocator idAllocator;
+    private final FeedPageCache feedPageCache;
+    private final PostResponseCache postResponseCache;
+    private final Timer flushTimer;
+    private ThreadPoolTaskScheduler flushScheduler;
+
+    private final ConcurrentHashMap<LikeKey, PendingLike> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, PendingCounter> pendingDeltas = new ConcurrentHashMap<>();
+
+    @Value("${moodify.app.likes.writeBehind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${moodify.app.likes.writeBehind.flushIntervalMs:1000}")
+    private long flushIntervalMs;
+
+    @Value("${moodify.app.likes.writeBehind.flushBatchSize:500}")
+    private int flushBatchSize;
+
+    @Autowired
+    public LikeWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 SequenceIdAllocator idAllocator,
+                                 FeedPageCache feedPageCache,
+                                 PostResponseCache postResponseCache,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idAllocator = idAllocator;
+        this.feedPageCache = feedPageCache;
+        this.postResponseCache = postResponseCache;
+        this.flushTimer = Timer.builder("moodify.likes.flush")
+                .description("Time taken by one flush of the like write-behind buffer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startFlushing() {
+        if (!enabled) {
+            return;
+        }
+        flushScheduler = new ThreadPoolTaskScheduler();
+        flushScheduler.setThreadNamePrefix("like-flush-");
+        flushScheduler.setWaitForTasksToCompleteOnShutdown(true);
+        flushScheduler.initialize();
+        flushScheduler.scheduleWithFixedDelay(() -> flushTimer.record(this::flush), Duration.ofMillis(flushIntervalMs));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns the liked state buffered for this user and post, or null if nothing is pending
+    public Boolean pendingState(Long userId, Long postId) {
+        PendingLike current = pending.get(new LikeKey(userId, postId));
+        return current == null ? null : current.liked();
+    }
+
+    // Net like_count change for the post that is not yet in the database
+    public long pendingDelta(Long postId) {
+        PendingCounter counter = pendingDeltas.get(postId);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    // Records a like (liked = true) or unlike. persistedLiked is the state currently in the database and is
+    // only consulted when nothing is pending for this user and post. Returns false if it was a no-op.
+    public boolean record(Long userId, Long postId, boolean liked, boolean persistedLiked) {
+        boolean[] changed = new boolean[1];
+        pending.compute(new LikeKey(userId, postId), (key, current) -> {
+            boolean effective = current != null ? current.liked() : persistedLiked;
+            if (effective == liked) {
+                return current;
+            }
+            int delta = liked ? 1 : -1;
+            addPendingDelta(postId, delta);
+            changed[0] = true;
+            // Entries are kept even when the net delta returns to 0, the flush is what clears them
+            return new PendingLike(liked, (current != null ? current.delta() : 0) + delta);
+        });
+        return changed[0];
+    }
+
+    public void flush() {
+        if (!enabled || pending.isEmpty()) {
+            cleanupIdleCounters();
+            return;
+        }
+        List<Map.Entry<LikeKey, PendingLike>> snapshot = new ArrayList<>(Map.copyOf(pending).entrySet());
+        log.debug("Flushing {} buffered like changes", snapshot.size());
+        for (int from = 0; from < snapshot.size(); from += flushBatchSize) {
+            List<Map.Entry<LikeKey, PendingLike>> batch = snapshot.subList(from, Math.min(from + flushBatchSize, snapshot.size()));
+            try {
+                // The caches are updated by persist after commit, before the batch leaves the pending deltas
+                transactionTemplate.executeWithoutResult(status -> persist(batch));
+            } catch (RuntimeException e) {
+                // The batch stays pending and is retried on the next flush
+                log.error("Failed to flush {} buffered like changes: {}", batch.size(), e.getMessage(), e);
+                continue;
+            }
+            batch.forEach(entry -> markFlushed(entry.getKey(), entry.getValue()));
+        }
+        cleanupIdleCounters();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (flushScheduler != null) {
+            // Waits for a running flush
+            flushScheduler.shutdown();
+        }
+        if (enabled && !pending.isEmpty()) {
+            log.info("Flushing {} buffered like changes before shutdown", pending.size());
+            flush();
+        }
+    }
+
+    private void persist(List<Map.Entry<LikeKey, PendingLike>> batch) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Long> insertPostIds = new ArrayList<>();
+        List<Long> deletePostIds = new ArrayList<>();
+        long[] likeIds = idAllocator.nextIds("likes_seq", (int) batch.stream().filter(entry -> entry.getValue().liked()).count());
+        for (Map.Entry<LikeKey, PendingLike> entry : batch) {
+            LikeKey key = entry.getKey();
+            if (entry.getValue().liked()) {
+                inserts.add(new Object[]{likeIds[inserts.size()], key.userId(), key.postId(), key.postId(), key.userId()});
+                insertPostIds.add(key.postId());
+            } else {
+                deletes.add(new Object[]{key.userId(), key.postId()});
+                deletePostIds.add(key.postId());
+            }
+        }
+        Long[] batchPostIds = batch.stream().map(entry -> entry.getKey().postId()).distinct().toArray(Long[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOCK_POSTS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", batchPostIds));
+            return statement;
+        }, row -> {
+        });
+        // Counters are adjusted by the rows actually written, so conflicts and missing posts cannot skew them
+        Map<Long, Long> appliedDeltas = new HashMap<>();
+        collectApplied(appliedDeltas, insertPostIds, jdbcTemplate.batchUpdate(INSERT_LIKE_SQL, inserts), 1);
+        collectApplied(appliedDeltas, deletePostIds, jdbcTemplate.batchUpdate(DELETE_LIKE_SQL, deletes), -1);
+        appliedDeltas.values().removeIf(delta -> delta == 0);
+        if (appliedDeltas.isEmpty()) {
+            return;
+        }
+        Long[] postIds = appliedDeltas.keySet().toArray(Long[]::new);
+        Long[] deltas = Arrays.stream(postIds).map(appliedDeltas::get).toArray(Long[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ADJUST_COUNTS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", postIds));
+            statement.setArray(2, connection.createArrayOf("bigint", deltas));
+            return statement;
+        }, row -> {
+            // Applied after commit
+            long postId = row.getLong(1);
+            postResponseCache.updateLikeCount(postId, row.getLong(2));
+            feedPageCache.invalidatePagesContaining(postId);
+        });
+    }
+
+    private static void collectApplied(Map<Long, Long> appliedDeltas, List<Long> postIds, int[] rowCounts, int sign) {
+        for (int i = 0; i < rowCounts.length; i++) {
+            // SUCCESS_NO_INFO (-2) means the driver did not report a count; assume the row was written
+            if (rowCounts[i] > 0 || rowCounts[i] == Statement.SUCCESS_NO_INFO) {
+                appliedDeltas.merge(postIds.get(i), (long) sign, Long::sum);
+            }
+        }
+    }
+
+    // Removes the flushed part of an entry. Changes recorded while the flush was running stay pending.
+    private void markFlushed(LikeKey key, PendingLike flushed) {
+        pending.compute(key, (k, current) -> {
+            if (current == null) {
+                return null;
+            }
+            int remaining = current.delta() - flushed.delta();
+            return remaining == 0 && current.liked() == flushed.liked() ? null : new PendingLike(current.liked(), remaining);
+        });
+        addPendingDelta(key.postId(), -flushed.delta());
+    }
+
+    private void addPendingDelta(Long postId, long delta) {
+        PendingCounter counter = pendingDeltas.computeIfAbsent(postId, id -> new PendingCounter());
+        counter.add(delta);
+        // The counter may have been dropped by cleanup between lookup and add; move the delta to the live one
+        if (pendingDeltas.get(postId) != counter) {
+            counter.add(-delta);
+            addPendingDelta(postId, delta);
+        }
+    }
+
+    // Drops per-post counters that have been at zero for a while so the map does not grow without bound
+    private void cleanupIdleCounters() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs * IDLE_FLUSHES_BEFORE_CLEANUP);
+        long now = System.nanoTime();
+        pendingDeltas.forEach((postId, counter) -> {
+            if (now - counter.lastTouchedNanos > idleNanos && counter.sum() == 0) {
+                pendingDeltas.remove(postId, counter);
+            }
+        });
+    }
+
+    private static final class PendingCounter {
+        private final LongAdder adder = new LongAdder();
+        private volatile long lastTouchedNanos = System.nanoTime();
+
+        void add(long delta) {
+            lastTouchedNanos = System.nanoTime();
+            adder.add(delta);
+        }
+
+        long sum() {
+            return adder.sum();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.moodify.service;
+
+import com.moodify.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Recomputes the denormalized like/comment counters on posts from the likes/comments tables.
+// Works through the id space in fixed-size ranges, each range in its own short transaction,
+// and only writes rows whose counters have drifted. The range is row-locked before the counts are taken,
+// so likes and comments on those posts wait for the range's transaction instead of racing it.
+@Slf4j
+@Component
+public class PostCounterReconciliationJob {
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${moodify.app.counters.reconcileBatchSize:1000}")
+    private int batchSize;
+
+    @Value("${moodify.app.counters.reconcileOnStartup:true}")
+    private boolean reconcileOnStartup;
+
+    // Always reconcile after a restart when likes are buffered in memory (crash recovery)
+    @Value("${moodify.app.likes.writeBehind.enabled:false}")
+    private boolean likeWriteBehindEnabled;
+
+    @Autowired
+    public PostCounterReconciliationJob(PostRepository postRepository, PlatformTransactionManager transactionManager) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // The counters of posts created before the columns existed are backfilled by V4__post_counters.sql
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup || likeWriteBehindEnabled) {
+            reconcileAll();
+        }
+    }
+
+    @Scheduled(cron = "${moodify.app.counters.reconcileCron:0 0 4 * * *}")
+    public void reconcileScheduled() {
+        reconcileAll();
+    }
+
+    public int reconcileAll() {
+        long maxId = postRepository.findMaxId().orElse(0L);
+        log.info("Reconciling post counters up to post id {} in batches of {}", maxId, batchSize);
+        int fixed = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += batchSize) {
+            fixed += reconcileRange(fromId, fromId + batchSize - 1);
+        }
+        if (fixed > 0) {
+            log.warn("Post counter reconciliation corrected {} drifted posts", fixed);
+        } else {
+            log.info("Post counter reconciliation complete, no drift found");
+        }
+        return fixed;
+    }
+
+    private int reconcileRange(long fromId, long toId) {
+        Integer fixed = transactionTemplate.execute(status -> {
+            if (postRepository.lockIdRange(fromId, toId).isEmpty()) {
+                return 0;
+            }
+            return postRepository.reconcileCountersInRange(fromId, toId);
+        });
+        return fixed != null ? fixed : 0;
+    }
+}
@@ -1,126 +1,390 @@
 package com.moodify.service;
 
+import com.moodify.cache.FeedPageCache;
+import com.moodify.cache.PostResponseCache;
+import com.moodify.config.MetricsConfig;
 import com.moodify.dto.AuthorDto;
+import com.moodify.dto.CursorPage;
+import com.moodify.dto.KeysetCursor;
 import com.moodify.dto.PostCreateRequest;
 import com.moodify.dto.PostResponse;
 import com.moodify.dto.PostUpdateRequest;
-import com.moodify.model.ERole;
 import com.moodify.model.Post;
-import com.moodify.model.User;
 import com.moodify.repository.CommentRepository;
 import com.moodify.repository.LikeRepository;
 import com.moodify.repository.PostRepository;
+import com.moodify.repository.projection.PostRow;
+import com.moodify.repository.projection.UpdatedPostRow;
 import com.moodify.security.AuthenticationHelper;
+import com.moodify.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class PostService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+
+    private static final String DEGRADED_METRIC = "moodify.feed.degraded";
+
+    // Key of the GET /api/posts count in lastKnownTotals
+    private static final String ALL_POSTS_TOTAL = "allPosts";
+
     private final PostRepository postRepository;
     private final LikeRepository likeRepository;
     private final CommentRepository commentRepository;
     private final AuthenticationHelper authenticationHelper;
+    private final FeedPageCache feedPageCache;
+    private final PostResponseCache postResponseCache;
+    private final LikeWriteBehindBuffer likeWriteBehindBuffer;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate feedPartTransaction;
+    private final TaskExecutor feedAssemblyExecutor;
+    private final Counter totalDegraded;
+    private final Counter likedByMeDegraded;
+
+    // Per count query, the total of its last count that completed in time; served when a count is left out
+    private final Map<String, Long> lastKnownTotals = new ConcurrentHashMap<>();
+
+    // Time budget for the concurrently fetched parts of a GET /api/posts page
+    private final long feedAssemblyDeadlineMs;
 
     @Autowired
     public PostService(PostRepository postRepository,
                        LikeRepository likeRepository,
                        CommentRepository commentRepository,
-                       AuthenticationHelper authenticationHelper) {
+                       AuthenticationHelper authenticationHelper,
+                       FeedPageCache feedPageCache,
+                       PostResponseCache postResponseCache,
+                       LikeWriteBehindBuffer likeWriteBehindBuffer,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier("feedAssemblyExecutor") TaskExecutor feedAssemblyExecutor,
+                       @Value("${moodify.app.feedAssembly.deadlineMs:500}") long feedAssemblyDeadlineMs,
+                       MeterRegistry meterRegistry) {
         this.postRepository = postRepository;
         this.likeRepository = likeRepository;
         this.commentRepository = commentRepository;
         this.authenticationHelper = authenticationHelper;
+        this.feedPageCache = feedPageCache;
+        this.postResponseCache = postResponseCache;
+        this.likeWriteBehindBuffer = likeWriteBehindBuffer;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // The transaction timeout becomes the JDBC query timeout, so a part still running after the deadline
+        // is cancelled in the database. JDBC counts it in whole seconds, hence rounded up.
+        this.feedPartTransaction = new TransactionTemplate(transactionManager);
+        this.feedPartTransaction.setReadOnly(true);
+        this.feedPartTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(feedAssemblyDeadlineMs + 999)));
+        this.feedAssemblyExecutor = feedAssemblyExecutor;
+        this.feedAssemblyDeadlineMs = feedAssemblyDeadlineMs;
+        this.totalDegraded = Counter.builder(DEGRADED_METRIC).tag("part", "total")
+                .description("Feed pages served without a part that missed its deadline").register(meterRegistry);
+        this.likedByMeDegraded = Counter.builder(DEGRADED_METRIC).tag("part", "likedByMe")
+                .description("Feed pages served without a part that missed its deadline").register(meterRegistry);
     }
 
-    private PostResponse mapPostToPostResponse(Post post) {
+    // A new post has no likes or comments yet, and its author is the current user:
+    // nothing has to be read back from the database
+    private PostResponse mapNewPostToPostResponse(Post post, UserPrincipal author) {
         PostResponse response = new PostResponse();
         response.setId(post.getId());
         response.setContent(post.getContent());
         response.setSongUrl(post.getSongUrl());
         response.setCreatedAt(post.getCreatedAt());
-        User author = post.getUser();
-        if (author != null) {
-            response.setAuthor(new AuthorDto(author.getId(), author.getUsername()));
+        response.setAuthor(new AuthorDto(author.getId(), author.getUsername()));
+        response.setLikeCount(0);
+        response.setCommentCount(0);
+        response.setLikedByMe(false);
+        return response;
+    }
+
+    // The author is passed in: the update only succeeds for the author, so it is the current user
+    private PostResponse mapUpdatedPostRowToPostResponse(UpdatedPostRow row, UserPrincipal author) {
+        PostResponse response = new PostResponse();
+        response.setId(row.getId());
+        response.setContent(row.getContent());
+        response.setSongUrl(row.getSongUrl());
+        response.setCreatedAt(row.getCreatedAt());
+        response.setAuthor(new AuthorDto(author.getId(), author.getUsername()));
+        response.setLikeCount(row.getLikeCount());
+        response.setCommentCount(row.getCommentCount());
+        return response;
+    }
+
+    // Package-private for FeedPageBenchmark
+    PostResponse mapPostRowToPostResponse(PostRow row) {
+        PostResponse response = new PostResponse();
+        response.setId(row.id());
+        response.setContent(row.content());
+        response.setSongUrl(row.songUrl());
+        response.setCreatedAt(row.createdAt());
+        if (row.authorId() != null) {
+            response.setAuthor(new AuthorDto(row.authorId(), row.authorUsername()));
         } else {
             response.setAuthor(new AuthorDto(null, "Unknown"));
         }
-        response.setLikeCount(likeRepository.countByPostId(post.getId()));
-        response.setCommentCount(commentRepository.countByPostId(post.getId()));
+        response.setLikeCount(row.likeCount());
+        response.setCommentCount(row.commentCount());
         return response;
     }
 
+    // Adds the like changes still buffered in memory (write-behind mode). The caches only ever hold persisted
+    // counts, which the buffer's flush updates after commit, so a count is never cached with a pending delta in it.
+    private PostResponse withPendingLikes(PostResponse post) {
+        long delta = likeWriteBehindBuffer.pendingDelta(post.getId());
+        return delta == 0 ? post : post.withLikeCount(post.getLikeCount() + delta);
+    }
+
+    private List<PostResponse> withPendingLikes(List<PostResponse> posts) {
+        return posts.stream().map(this::withPendingLikes).toList();
+    }
+
+    // Sets likedByMe for the current user with a single IN query per page; anonymous requests skip the lookup.
+    // Responses may come from the shared caches, so the flag is set on copies.
+    private List<PostResponse> withLikedByMe(List<PostResponse> posts) {
+        if (posts.isEmpty()) {
+            return posts;
+        }
+        Optional<Long> currentUserId = authenticationHelper.findCurrentUserId();
+        if (currentUserId.isEmpty()) {
+            return posts;
+        }
+        Long userId = currentUserId.get();
+        return withLikedByMe(posts, userId, likeRepository.findPostIdsLikedByUser(userId, postIds(posts)));
+    }
+
+    private List<PostResponse> withLikedByMe(List<PostResponse> posts, Long userId, Set<Long> likedPostIds) {
+        return posts.stream()
+                .map(post -> {
+                    // A like still buffered in memory (write-behind mode) wins over the database
+                    Boolean pending = likeWriteBehindBuffer.pendingState(userId, post.getId());
+                    return post.withLikedByMe(pending != null ? pending : likedPostIds.contains(post.getId()));
+                })
+                .toList();
+    }
+
+    private PostResponse withLikedByMe(PostResponse post) {
+        return withLikedByMe(List.of(post)).get(0);
+    }
+
     @Transactional
     public PostResponse createPost(PostCreateRequest postCreateRequest) {
-        User currentUser = authenticationHelper.getCurrentUserEntity();
+        UserPrincipal currentUser = authenticationHelper.getCurrentUser();
         log.info("User '{}' is creating a post", currentUser.getUsername());
         Post post = new Post();
-        post.setUser(currentUser);
+        post.setUser(authenticationHelper.getCurrentUserReference());
         post.setContent(postCreateRequest.getContent());
         post.setSongUrl(postCreateRequest.getSongUrl());
-        Post savedPost = postRepository.save(post);
+        // The response carries createdAt, which @CreationTimestamp only sets when the insert is flushed
+        Post savedPost = postRepository.saveAndFlush(post);
+        feedPageCache.invalidateAll();
         log.info("Post created with id: {}", savedPost.getId());
-        return mapPostToPostResponse(savedPost);
+        return mapNewPostToPostResponse(savedPost, currentUser);
     }
 
-    @Transactional(readOnly = true)
+    private static List<Long> postIds(List<PostResponse> posts) {
+        return posts.stream().map(PostResponse::getId).toList();
+    }
+
+    // Not @Transactional: cache hits must not open a transaction or borrow a connection.
+    // The page rows are read on the request thread while the total count runs on the feedAssemblyExecutor;
+    // the likedByMe lookup starts there as soon as the rows are known. The count and the lookup share a
+    // deadline (moodify.app.feedAssembly.deadlineMs): a part that misses it is left out instead of delaying
+    // the page, so latency is bounded by the rows query plus the deadline rather than the sum of all queries.
+    // - a late count is replaced by the last known total (or a lower bound) and the page is not cached
+    // - a late likedByMe lookup leaves likedByMe null, as for anonymous requests
+    // A part the saturated executor rejects is left out the same way. A late part is cancelled: it does not
+    // start if still queued, and a running query is cancelled by its transaction timeout.
     public Page<PostResponse> getAllPosts(Pageable pageable) {
-        log.debug("Fetching all posts, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
-        Page<Post> postPage = postRepository.findAllWithUserOrderByCreatedAtDesc(pageable);
-        return postPage.map(this::mapPostToPostResponse);
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(feedAssemblyDeadlineMs);
+        Optional<Long> currentUserId = authenticationHelper.findCurrentUserId();
+        AtomicBoolean loaded = new AtomicBoolean();
+        AtomicReference<CompletableFuture<Set<Long>>> likedLookup = new AtomicReference<>();
+        AtomicBoolean totalEstimated = new AtomicBoolean();
+        Page<PostResponse> page = feedPageCache.get(pageable, () -> {
+            log.debug("Fetching all posts, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
+            loaded.set(true);
+            CompletableFuture<Long> total = pageable.isPaged()
+                    ? startPart(() -> feedPartTransaction.execute(status -> postRepository.count()), totalDegraded)
+                    : null;
+            if (total != null) {
+                total.thenAccept(counted -> lastKnownTotals.put(ALL_POSTS_TOTAL, counted));
+            }
+            List<PostResponse> content = readOnlyTransaction.execute(status -> postRepository.findPostRows(pageable)).stream()
+                    .map(this::mapPostRowToPostResponse)
+                    .toList();
+            likedLookup.set(lookupLikedPostIds(currentUserId, content));
+            // Like Spring Data, the count is only consulted when the rows alone do not determine the total
+            return PageableExecutionUtils.getPage(content, pageable, () -> {
+                Long counted = await(total, deadlineNanos, totalDegraded);
+                if (counted != null) {
+                    return counted;
+                }
+                totalEstimated.set(true);
+                long lowerBound = pageable.getOffset() + content.size() + (content.size() == pageable.getPageSize() ? 1 : 0);
+                return Math.max(lastKnownTotals.getOrDefault(ALL_POSTS_TOTAL, -1L), lowerBound);
+            });
+        }, () -> !totalEstimated.get());
+
+        List<PostResponse> content = withPendingLikes(page.getContent());
+        if (currentUserId.isPresent() && !content.isEmpty()) {
+            // Cache hit: the lookup has not been started by the loader
+            CompletableFuture<Set<Long>> lookup = loaded.get() ? likedLookup.get() : lookupLikedPostIds(currentUserId, content);
+            Set<Long> likedPostIds = await(lookup, deadlineNanos, likedByMeDegraded);
+            if (likedPostIds != null) {
+                content = withLikedByMe(content, currentUserId.get(), likedPostIds);
+            }
+        }
+        return new PageImpl<>(content, page.getPageable(), page.getTotalElements());
+    }
+
+    private CompletableFuture<Set<Long>> lookupLikedPostIds(Optional<Long> currentUserId, List<PostResponse> posts) {
+        if (currentUserId.isEmpty() || posts.isEmpty()) {
+            return null;
+        }
+        List<Long> ids = postIds(posts);
+        return startPart(() -> feedPartTransaction.execute(status ->
+                likeRepository.findPostIdsLikedByUser(currentUserId.get(), ids)), likedByMeDegraded);
+    }
+
+    // Starts a part on the feedAssemblyExecutor, or returns null if the executor is saturated
+    private <T> CompletableFuture<T> startPart(Supplier<T> part, Counter degraded) {
+        try {
+            return CompletableFuture.supplyAsync(part, feedAssemblyExecutor);
+        } catch (RejectedExecutionException e) {
+            log.debug("Feed assembly executor is saturated, leaving a part out");
+            degraded.increment();
+            return null;
+        }
+    }
+
+    // The result of a concurrently fetched part, or null if it was not started, failed or missed the deadline
+    private <T> T await(CompletableFuture<T> part, long deadlineNanos, Counter degraded) {
+        if (part == null) {
+            return null;
+        }
+        try {
+            return part.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Feed part missed its deadline of {} ms", feedAssemblyDeadlineMs);
+            part.cancel(false);
+        } catch (ExecutionException e) {
+            log.warn("Feed part failed: {}", e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        degraded.increment();
+        return null;
     }
 
     @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getPostsFeed(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        log.debug("Fetching posts feed, cursor: {}, size: {}", cursor, pageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<PostRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postRepository.findPostRowsFirstPage(limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor); // IllegalArgumentException -> 400
+            rows = postRepository.findPostRowsBefore(position.getCreatedAt(), position.getId(), limit);
+        }
+        CursorPage<PostResponse> page = CursorPage.of(rows, pageSize,
+                row -> new KeysetCursor(row.createdAt(), row.id()),
+                this::mapPostRowToPostResponse);
+        page.setContent(withLikedByMe(withPendingLikes(page.getContent())));
+        return page;
+    }
+
+    // Only a cache miss opens a transaction, the loader's read-only one
     public PostResponse getPostById(Long postId) {
-        log.debug("Fetching post by id: {}", postId);
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
-        return mapPostToPostResponse(post);
+        PostResponse post = postResponseCache.get(postId, () -> readOnlyTransaction.execute(status -> {
+            log.debug("Fetching post by id: {}", postId);
+            return postRepository.findPostRowById(postId)
+                    .map(this::mapPostRowToPostResponse)
+                    .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
+        }));
+        return withLikedByMe(withPendingLikes(post));
     }
 
     @Transactional
     public PostResponse updatePost(Long postId, PostUpdateRequest updateRequest) {
-        User currentUser = authenticationHelper.getCurrentUserEntity();
+        UserPrincipal currentUser = authenticationHelper.getCurrentUser();
         log.info("User '{}' attempting to update post id: {}", currentUser.getUsername(), postId);
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
-        if (!post.getUser().getId().equals(currentUser.getId())) {
+        // Single statement: ownership is part of the WHERE clause and the new row is returned.
+        // Only a failed update pays for the query that tells 404 from 403.
+        Optional<UpdatedPostRow> updated = postRepository.updateOwnedPost(postId, currentUser.getId(),
+                updateRequest.getContent(), updateRequest.getSongUrl());
+        if (updated.isEmpty()) {
+            if (!postRepository.existsById(postId)) {
+                throw new EntityNotFoundException("Post not found with id: " + postId);
+            }
             log.error("Access Denied: User '{}' is not the author of post id: {}", currentUser.getUsername(), postId);
             throw new AccessDeniedException("You are not authorized to update this post");
         }
-        post.setContent(updateRequest.getContent());
-        post.setSongUrl(updateRequest.getSongUrl());
-        Post updatedPost = postRepository.save(post);
+        PostResponse response = mapUpdatedPostRowToPostResponse(updated.get(), currentUser);
+        feedPageCache.invalidatePagesContaining(postId);
+        postResponseCache.put(response);
         log.info("Post id: {} updated successfully by user '{}'", postId, currentUser.getUsername());
-        return mapPostToPostResponse(updatedPost);
+        return withLikedByMe(withPendingLikes(response));
     }
 
     @Transactional
     public void deletePost(Long postId) {
-        User currentUser = authenticationHelper.getCurrentUserEntity();
+        UserPrincipal currentUser = authenticationHelper.getCurrentUser();
         log.warn("User '{}' attempting to delete post id: {}", currentUser.getUsername(), postId);
 
-        Post post = postRepository.findById(postId)
+        Long authorId = postRepository.findAuthorIdForUpdate(postId)
                 .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
 
-        boolean isAdmin = currentUser.getRoles().stream()
-                .anyMatch(role -> role.getName() == ERole.ROLE_ADMIN);
-        boolean isAuthor = post.getUser().getId().equals(currentUser.getId());
+        boolean isAdmin = currentUser.isAdmin();
+        boolean isAuthor = authorId.equals(currentUser.getId());
 
         if (!isAuthor && !isAdmin) {
             log.error("Access Denied: User '{}' is not authorized to delete post id {} (author id: {})",
-                    currentUser.getUsername(), postId, post.getUser().getId());
+                    currentUser.getUsername(), postId, authorId);
             throw new AccessDeniedException("You are not authorized to delete this post");
         }
 
-        postRepository.delete(post);
+        // Set-based: three statements however many likes and comments the post has
+        int deletedLikes = likeRepository.deleteByPostId(postId);
+        int deletedComments = commentRepository.deleteByPostId(postId);
+        postRepository.deletePostById(postId);
+        log.debug("Deleted {} likes and {} comments of post id: {}", deletedLikes, deletedComments, postId);
+        feedPageCache.invalidatePagesFrom(postId);
+        postResponseCache.invalidate(postId);
         log.info("Post id: {} deleted successfully by user '{}' (is admin: {})", postId, currentUser.getUsername(), isAdmin);
     }
 }
\ No newline at end of file
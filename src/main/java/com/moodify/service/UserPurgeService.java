@@ -0,0 +1,231 @@
+package com.moodify.service;
+
+import com.moodify.cache.FeedPageCache;
+import com.moodify.cache.PostResponseCache;
+import com.moodify.config.MetricsConfig;
+import com.moodify.dto.UserPurgeJobResponse;
+import com.moodify.exception.PurgeQueueFullException;
+import com.moodify.repository.CommentRepository;
+import com.moodify.repository.LikeRepository;
+import com.moodify.repository.PostRepository;
+import com.moodify.repository.UserRepository;
+import com.moodify.security.UserStatusCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Deletes a user and all of their content in the background (admin "delete user").
+//
+// The user is disabled synchronously, so their tokens stop working right away; everything else runs
+// on the userPurgeExecutor as bounded set-based batches, each in its own short transaction, so no
+// long-running transaction holds locks. Batches are idempotent: a purge that failed or was lost in a
+// restart is resumed by deleting the user again.
+//
+// Job status is kept in memory only, by the instance that accepted the job: after a restart, or behind a
+// load balancer on another instance, the status URL answers 404 although the purge may have completed or
+// still be running. A 404 therefore means "unknown", not "failed"; the user's row disappears once the
+// purge is complete, and deleting the user again is always safe.
+@Slf4j
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class UserPurgeService {
+
+    private enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private enum Phase { LIKES_ON_POSTS, COMMENTS_ON_POSTS, POSTS, LIKES, COMMENTS, USER, DONE }
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final FeedPageCache feedPageCache;
+    private final PostResponseCache postResponseCache;
+    private final UserStatusCache userStatusCache;
+    private final TaskExecutor userPurgeExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, PurgeJob> jobs = new ConcurrentHashMap<>();
+    private final ReentrantLock submitLock = new ReentrantLock();
+
+    @Value("${moodify.app.userPurge.batchSize:1000}")
+    private int batchSize;
+
+    // Finished jobs stay queryable this long
+    @Value("${moodify.app.userPurge.jobRetentionMinutes:60}")
+    private long jobRetentionMinutes;
+
+    // Retry-After of the 503 answered while the purge queue is full
+    @Value("${moodify.app.userPurge.retryAfterSeconds:30}")
+    private long retryAfterSeconds;
+
+    @Autowired
+    public UserPurgeService(UserRepository userRepository,
+                            PostRepository postRepository,
+                            LikeRepository likeRepository,
+                            CommentRepository commentRepository,
+                            FeedPageCache feedPageCache,
+                            PostResponseCache postResponseCache,
+                            UserStatusCache userStatusCache,
+                            @Qualifier("userPurgeExecutor") TaskExecutor userPurgeExecutor,
+                            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.commentRepository = commentRepository;
+        this.feedPageCache = feedPageCache;
+        this.postResponseCache = postResponseCache;
+        this.userStatusCache = userStatusCache;
+        this.userPurgeExecutor = userPurgeExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Serialized so that two concurrent requests for the same user cannot both start a job.
+    // A lock rather than synchronized: the database call inside would pin a virtual thread to its carrier
+    public UserPurgeJobResponse submit(Long userId) {
+        submitLock.lock();
+        try {
+            log.warn("[ADMIN ACTION] Submitting purge of user id: {}", userId);
+            removeExpiredJobs();
+            PurgeJob running = jobs.values().stream()
+                    .filter(job -> job.userId.equals(userId) && !job.isFinished())
+                    .findFirst()
+                    .orElse(null);
+            if (running != null) {
+                log.info("Purge of user id: {} is already in progress (job {})", userId, running.id);
+                return running.toResponse();
+            }
+
+            Integer disabled = transactionTemplate.execute(status -> userRepository.disableById(userId));
+            if (disabled == null || disabled == 0) {
+                throw new EntityNotFoundException("User not found with id: " + userId);
+            }
+            userStatusCache.invalidate(userId);
+
+            PurgeJob job = new PurgeJob(UUID.randomUUID().toString(), userId);
+            jobs.put(job.id, job);
+            try {
+                userPurgeExecutor.execute(() -> run(job));
+            } catch (TaskRejectedException e) {
+                job.finish(Status.FAILED, "Purge queue is full");
+                throw new PurgeQueueFullException("Too many user purges queued, try again later", retryAfterSeconds);
+            }
+            log.info("Purge of user id: {} queued as job {}", userId, job.id);
+            return job.toResponse();
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    public UserPurgeJobResponse getJob(String jobId) {
+        PurgeJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Purge job not found with id: " + jobId
+                    + ". Job status is only known to the instance that accepted the job until it restarts;"
+                    + " delete the user again to resume an unfinished purge.");
+        }
+        return job.toResponse();
+    }
+
+    private void run(PurgeJob job) {
+        Long userId = job.userId;
+        job.status = Status.RUNNING;
+        log.warn("Purge job {} started for user id: {}", job.id, userId);
+        try {
+            // The user's posts: their likes and comments first, then the posts (counters go with the posts)
+            job.phase = Phase.LIKES_ON_POSTS;
+            deleteInBatches(job.deletedLikes, () -> likeRepository.deleteBatchOnPostsOfAuthor(userId, batchSize));
+            job.phase = Phase.COMMENTS_ON_POSTS;
+            deleteInBatches(job.deletedComments, () -> commentRepository.deleteBatchOnPostsOfAuthor(userId, batchSize));
+            job.phase = Phase.POSTS;
+            deleteInBatches(job.deletedPosts, () -> postRepository.deleteBatchByAuthorId(userId, batchSize));
+
+            // The user's likes and comments on other posts, with the counters of those posts
+            job.phase = Phase.LIKES;
+            deleteInBatches(job.deletedLikes, () -> likeRepository.deleteBatchByUserAdjustingCounts(userId, batchSize));
+            job.phase = Phase.COMMENTS;
+            deleteInBatches(job.deletedComments, () -> commentRepository.deleteBatchByUserAdjustingCounts(userId, batchSize));
+
+            job.phase = Phase.USER;
+            transactionTemplate.executeWithoutResult(status ->
+                    userRepository.findById(userId).ifPresent(userRepository::delete));
+            userStatusCache.invalidate(userId);
+
+            job.phase = Phase.DONE;
+            job.finish(Status.COMPLETED, null);
+            log.info("Purge job {} completed: user id: {} deleted with {} posts, {} comments, {} likes",
+                    job.id, userId, job.deletedPosts.get(), job.deletedComments.get(), job.deletedLikes.get());
+        } catch (RuntimeException e) {
+            job.finish(Status.FAILED, e.getMessage());
+            log.error("Purge job {} for user id: {} failed in phase {}: {}", job.id, userId, job.phase, e.getMessage(), e);
+        } finally {
+            // Posts disappear and counters change all over the feed
+            feedPageCache.invalidateAll();
+            postResponseCache.invalidateAll();
+        }
+    }
+
+    // Runs the batch, one transaction each, until it deletes nothing
+    private void deleteInBatches(AtomicLong progress, LongSupplier batch) {
+        long deleted;
+        do {
+            Long result = transactionTemplate.execute(status -> batch.getAsLong());
+            deleted = result != null ? result : 0;
+            progress.addAndGet(deleted);
+        } while (deleted > 0);
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class PurgeJob {
+        private final String id;
+        private final Long userId;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicLong deletedPosts = new AtomicLong();
+        private final AtomicLong deletedComments = new AtomicLong();
+        private final AtomicLong deletedLikes = new AtomicLong();
+        private volatile Status status = Status.QUEUED;
+        private volatile Phase phase = Phase.LIKES_ON_POSTS;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        PurgeJob(String id, Long userId) {
+            this.id = id;
+            this.userId = userId;
+        }
+
+        boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+
+        void finish(Status finalStatus, String failure) {
+            error = failure;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        UserPurgeJobResponse toResponse() {
+            return new UserPurgeJobResponse(id, userId, status.name(), phase.name(),
+                    deletedPosts.get(), deletedComments.get(), deletedLikes.get(),
+                    submittedAt, finishedAt, error);
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package com.moodify.service;
 
+import com.moodify.config.MetricsConfig;
 import com.moodify.dto.UserResponseDto;
-import com.moodify.model.Post;
-import com.moodify.model.User;
-import com.moodify.repository.CommentRepository;
-import com.moodify.repository.LikeRepository;
-import com.moodify.repository.PostRepository;
 import com.moodify.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.moodify.repository.projection.UserRoleRow;
+import com.moodify.repository.projection.UserRow;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -15,82 +13,45 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PostRepository postRepository;
-    private final LikeRepository likeRepository;
-    private final CommentRepository commentRepository;
 
     @Autowired
-    public UserService(UserRepository userRepository,
-                       PostRepository postRepository,
-                       LikeRepository likeRepository,
-                       CommentRepository commentRepository) {
+    public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
-        this.postRepository = postRepository;
-        this.likeRepository = likeRepository;
-        this.commentRepository = commentRepository;
     }
 
-    // Mapping User -> UserResponseDto
-    private UserResponseDto mapUserToUserResponseDto(User user) {
+    // Mapping UserRow + role names -> UserResponseDto
+    private UserResponseDto mapUserRowToUserResponseDto(UserRow user, List<String> roles) {
         UserResponseDto dto = new UserResponseDto();
-        dto.setId(user.getId());
-        dto.setUsername(user.getUsername());
-        dto.setEmail(user.getEmail());
-        dto.setEnabled(user.isEnabled());
-        dto.setCreatedAt(user.getCreatedAt());
-        dto.setRoles(user.getRoles().stream()
-                .map(role -> role.getName().name())
-                .collect(Collectors.toList()));
+        dto.setId(user.id());
+        dto.setUsername(user.username());
+        dto.setEmail(user.email());
+        dto.setEnabled(user.enabled());
+        dto.setCreatedAt(user.createdAt());
+        dto.setRoles(roles);
         return dto;
     }
 
     @Transactional(readOnly = true)
     public Page<UserResponseDto> getAllUsers(Pageable pageable) {
         log.debug("Admin fetching all users, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
-        Page<User> userPage = userRepository.findAll(pageable);
-        return userPage.map(this::mapUserToUserResponseDto);
-    }
-
-    @Transactional
-    public void deleteUser(Long userId) {
-        log.warn("[ADMIN ACTION] Attempting to delete user id: {}", userId);
-
-
-        // Find the user
-        User userToDelete = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
-
-        // Find and delete all posts of this user
-        List<Post> userPosts = postRepository.findByUserId(userId);
-        if (!userPosts.isEmpty()) {
-            log.warn("Deleting {} posts associated with user id: {}", userPosts.size(), userId);
-
-            // Delete posts one by one so that cascade operations of JPA work
-            for (Post post : userPosts) {
-                log.debug("Deleting post with id: {} (belonging to user id: {})", post.getId(), userId);
-                postRepository.delete(post); // Delete each post individually
-            }
-        } else {
-            log.info("No posts found for user id: {} to delete.", userId);
+        Page<UserRow> userPage = userRepository.findUserRows(pageable);
+        if (userPage.isEmpty()) {
+            return userPage.map(user -> mapUserRowToUserResponseDto(user, List.of()));
         }
-
-        // Delete likes left by this user (under any posts)
-        log.warn("Deleting likes made by user id: {}", userId);
-        likeRepository.deleteByUserId(userId); // Вызываем новый метод репозитория
-
-        // Delete comments left by this user (under any posts)
-        log.warn("Deleting comments made by user id: {}", userId);
-        commentRepository.deleteByUserId(userId);
-
-        // Delete the user
-        userRepository.delete(userToDelete);
-        log.info("User id: {} and their associated content (posts, likes, comments) deleted successfully by admin.", userId);
+        // Roles of the whole page in one query instead of an EAGER collection load per user
+        Map<Long, List<String>> rolesByUserId = userRepository.findRolesByUserIds(
+                        userPage.map(UserRow::id).getContent()).stream()
+                .collect(Collectors.groupingBy(UserRoleRow::userId,
+                        Collectors.mapping(row -> row.role().name(), Collectors.toList())));
+        return userPage.map(user -> mapUserRowToUserResponseDto(user, rolesByUserId.getOrDefault(user.id(), List.of())));
     }
-}
\ No newline at end of file
+}
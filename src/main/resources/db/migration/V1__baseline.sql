@@ -0,0 +1,46 @@
+-- Baseline: the schema as it was created by Hibernate (ddl-auto=update) before migrations took over.
+-- Existing databases are baselined at this version and start from V2 (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE roles (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(20) NOT NULL UNIQUE CHECK (name IN ('ROLE_USER', 'ROLE_ADMIN'))
+);
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(50)  NOT NULL UNIQUE,
+    email      VARCHAR(60)  NOT NULL UNIQUE,
+    password   VARCHAR(100) NOT NULL,
+    enabled    BOOLEAN      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT  NOT NULL REFERENCES users (id),
+    role_id INTEGER NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE posts (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content    TEXT         NOT NULL,
+    song_url   VARCHAR(2048),
+    created_at TIMESTAMP(6) NOT NULL,
+    user_id    BIGINT       NOT NULL REFERENCES users (id)
+);
+
+CREATE TABLE comments (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content    TEXT         NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    user_id    BIGINT       NOT NULL REFERENCES users (id),
+    post_id    BIGINT       NOT NULL REFERENCES posts (id)
+);
+
+CREATE TABLE likes (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at TIMESTAMP(6) NOT NULL,
+    user_id    BIGINT       NOT NULL REFERENCES users (id),
+    post_id    BIGINT       NOT NULL REFERENCES posts (id),
+    UNIQUE (user_id, post_id)
+);
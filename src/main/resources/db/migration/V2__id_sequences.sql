@@ -0,0 +1,30 @@
+-- Ids come from pooled sequences (allocationSize 50 in the entities) instead of identity columns.
+-- The sequences may already exist if Hibernate created them before migrations took over.
+
+CREATE SEQUENCE IF NOT EXISTS roles_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS posts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS likes_seq START WITH 1 INCREMENT BY 50;
+
+-- Existing ids are kept: each sequence is moved past MAX(id), never backwards.
+-- setval(n) makes the next nextval() return n + 50, i.e. the pooled block n+1 .. n+50.
+SELECT setval('roles_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM roles), (SELECT last_value FROM roles_seq)));
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM users), (SELECT last_value FROM users_seq)));
+SELECT setval('posts_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM posts), (SELECT last_value FROM posts_seq)));
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM comments), (SELECT last_value FROM comments_seq)));
+SELECT setval('likes_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM likes), (SELECT last_value FROM likes_seq)));
+
+-- The identity sequences would hand out ids inside the pooled blocks, so they are dropped.
+-- Inserts that omit the id (manual SQL) draw from the same sequences as the application.
+ALTER TABLE roles ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE posts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE likes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE roles ALTER COLUMN id SET DEFAULT nextval('roles_seq');
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE posts ALTER COLUMN id SET DEFAULT nextval('posts_seq');
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER TABLE likes ALTER COLUMN id SET DEFAULT nextval('likes_seq');
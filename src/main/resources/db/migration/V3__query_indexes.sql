@@ -0,0 +1,14 @@
+-- Indexes for the queries in the repositories. Built CONCURRENTLY so writes are not blocked on
+-- large tables; Flyway runs this migration outside a transaction.
+-- likes(user_id) is not needed: the unique (user_id, post_id) index already leads with user_id.
+
+-- Feed, offset and keyset pages: ORDER BY created_at DESC, id DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_created_at_id ON posts (created_at DESC, id DESC);
+-- A user's posts (user purge)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_user_id ON posts (user_id);
+-- Comments of a post in order (pages and threads), counts and bulk deletes by post
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_post_id_created_at ON comments (post_id, created_at, id);
+-- A user's comments (user purge)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_user_id ON comments (user_id);
+-- Likes of a post: counts, reconciliation and bulk deletes by post
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_likes_post_id ON likes (post_id);
@@ -0,0 +1,18 @@
+-- Denormalized like/comment counters on posts (maintained by LikeService, CommentService and the
+-- like write-behind buffer). Databases baselined at V1 do not have them yet; databases that were
+-- run with ddl-auto=update after the counters were added already do, hence IF NOT EXISTS.
+-- A constant default does not rewrite the table (PostgreSQL 11+).
+
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill from the likes and comments tables, only writing rows whose counters differ.
+-- PostCounterReconciliationJob repairs any drift from then on.
+UPDATE posts p
+SET like_count = t.likes, comment_count = t.comments
+FROM (SELECT p2.id,
+             (SELECT COUNT(*) FROM likes l WHERE l.post_id = p2.id) AS likes,
+             (SELECT COUNT(*) FROM comments c WHERE c.post_id = p2.id) AS comments
+      FROM posts p2) t
+WHERE p.id = t.id
+  AND (p.like_count <> t.likes OR p.comment_count <> t.comments);
@@ -0,0 +1,88 @@
+package com.moodify;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.moodify.config.EndpointConstants.AUTH_CONTROLLER_BASE_PATH;
+import static com.moodify.config.EndpointConstants.AUTH_LOGIN_ENDPOINT;
+import static com.moodify.config.EndpointConstants.AUTH_REGISTER_ENDPOINT;
+import static com.moodify.config.EndpointConstants.POST_CONTROLLER_BASE_PATH;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Base class of the tests that run the whole application against PostgreSQL (see TestDatabase).
+// All subclasses share one application context and one database, so tests create their own users and posts
+// and must not rely on the database being empty. Skipped when no database is available.
+// Metrics export is on, as in production (Spring Boot turns it off in tests by default).
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public abstract class IntegrationTest {
+
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void requireDatabase() {
+        Assumptions.assumeTrue(TestDatabase.isAvailable(), TestDatabase::unavailableReason);
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> TestDatabase.get().url());
+        registry.add("spring.datasource.username", () -> TestDatabase.get().username());
+        registry.add("spring.datasource.password", () -> TestDatabase.get().password());
+    }
+
+    // Registers a new user and returns the Authorization header value for them
+    protected String newUser() throws Exception {
+        String username = "test-user-" + System.nanoTime() % 1_000_000 + "-" + USER_SEQUENCE.incrementAndGet();
+        String password = "password";
+        mockMvc.perform(json(post(AUTH_CONTROLLER_BASE_PATH + AUTH_REGISTER_ENDPOINT),
+                        Map.of("username", username, "email", username + "@test.moodify", "password", password)))
+                .andExpect(status().isOk());
+        String body = mockMvc.perform(json(post(AUTH_CONTROLLER_BASE_PATH + AUTH_LOGIN_ENDPOINT),
+                        Map.of("username", username, "password", password)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + objectMapper.readTree(body).get("token").asText();
+    }
+
+    // Creates a post as the given user and returns its id
+    protected long newPost(String authorization) throws Exception {
+        String body = mockMvc.perform(json(post(POST_CONTROLLER_BASE_PATH), Map.of("content", "test post", "songUrl", "https://example.com/song"))
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    protected MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+    }
+
+    protected JsonNode read(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,125 @@
+package com.moodify;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+// The PostgreSQL database the integration tests and the database benchmarks run against:
+// a fresh, empty database per JVM (the migrations create the schema), dropped when the JVM exits.
+//
+// By default an embedded server is started (zonky embedded-postgres). An existing server is used instead
+// when moodify.test.db.url (system property) or MOODIFY_TEST_DB_URL points at it, e.g.
+// -Dmoodify.test.db.url=jdbc:postgresql://localhost:5432/ with moodify.test.db.username/password
+// (default postgres/postgres). PostgreSQL refuses to run as root, so there a server must be given.
+public final class TestDatabase {
+
+    private static TestDatabase instance;
+    private static String unavailableReason;
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private TestDatabase(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    // Started on first use; throws IllegalStateException if no database can be provided
+    public static synchronized TestDatabase get() {
+        if (instance == null && unavailableReason == null) {
+            try {
+                instance = create();
+            } catch (IOException | SQLException | RuntimeException e) {
+                unavailableReason = "No PostgreSQL for the tests: " + e.getMessage()
+                        + ". Start them as a non-root user or point -Dmoodify.test.db.url at a server"
+                        + " (e.g. jdbc:postgresql://localhost:5432/).";
+            }
+        }
+        if (instance == null) {
+            throw new IllegalStateException(unavailableReason);
+        }
+        return instance;
+    }
+
+    public static synchronized boolean isAvailable() {
+        try {
+            get();
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    public static synchronized String unavailableReason() {
+        return unavailableReason;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private static TestDatabase create() throws IOException, SQLException {
+        String serverUrl = setting("moodify.test.db.url", "MOODIFY_TEST_DB_URL", null);
+        String username = setting("moodify.test.db.username", "MOODIFY_TEST_DB_USERNAME", "postgres");
+        String password = setting("moodify.test.db.password", "MOODIFY_TEST_DB_PASSWORD", "postgres");
+        EmbeddedPostgres embedded = null;
+        if (serverUrl == null) {
+            embedded = EmbeddedPostgres.builder().start();
+            serverUrl = "jdbc:postgresql://localhost:" + embedded.getPort() + "/";
+        } else if (!serverUrl.endsWith("/")) {
+            serverUrl = serverUrl + "/";
+        }
+
+        String database = "moodify_test_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        String adminUrl = serverUrl + "postgres";
+        execute(adminUrl, username, password, "CREATE DATABASE " + database);
+
+        EmbeddedPostgres server = embedded;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                execute(adminUrl, username, password, "DROP DATABASE IF EXISTS " + database + " WITH (FORCE)");
+                if (server != null) {
+                    server.close();
+                }
+            } catch (IOException | SQLException e) {
+                System.err.println("Could not drop test database " + database + ": " + e.getMessage());
+            }
+        }, "test-database-cleanup"));
+
+        // Same driver settings as the application's datasource URL
+        return new TestDatabase(serverUrl + database + "?reWriteBatchedInserts=true", username, password);
+    }
+
+    private static void execute(String url, String username, String password, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String setting(String property, String environmentVariable, String defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(environmentVariable);
+        }
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
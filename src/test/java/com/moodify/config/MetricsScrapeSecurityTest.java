@@ -0,0 +1,39 @@
+package com.moodify.config;
+
+import com.moodify.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /actuator/prometheus only answers the scrape credential (set in application-test.properties)
+class MetricsScrapeSecurityTest extends IntegrationTest {
+
+    private static final String PROMETHEUS = "/actuator/prometheus";
+
+    @Test
+    void anonymousScrapeIsRejected() throws Exception {
+        mockMvc.perform(get(PROMETHEUS))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void userTokenIsRejected() throws Exception {
+        mockMvc.perform(get(PROMETHEUS).header(HttpHeaders.AUTHORIZATION, newUser()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws Exception {
+        mockMvc.perform(get(PROMETHEUS).with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void scrapeCredentialIsAccepted() throws Exception {
+        mockMvc.perform(get(PROMETHEUS).with(httpBasic("prometheus", "test-scrape-password")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,60 @@
+package com.moodify.controller;
+
+import com.moodify.IntegrationTest;
+import com.moodify.cache.FeedPageCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import static com.moodify.config.EndpointConstants.POST_CONTROLLER_BASE_PATH;
+import static com.moodify.monitoring.SqlStatements.atMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SQL statement budgets of GET /api/posts. A page loaded from the database costs the rows and the count,
+// plus the likedByMe lookup for a signed-in user; a cached page costs nothing more than that lookup.
+class PostControllerStatementBudgetTest extends IntegrationTest {
+
+    @Autowired
+    private FeedPageCache feedPageCache;
+
+    private String authorization;
+
+    @BeforeEach
+    void createPosts() throws Exception {
+        authorization = newUser();
+        for (int i = 0; i < 3; i++) {
+            newPost(authorization);
+        }
+        feedPageCache.invalidateAll();
+    }
+
+    @Test
+    void anonymousFeedPage() throws Exception {
+        mockMvc.perform(get(POST_CONTROLLER_BASE_PATH))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+        mockMvc.perform(get(POST_CONTROLLER_BASE_PATH))
+                .andExpect(status().isOk())
+                .andExpect(atMost(0));
+    }
+
+    @Test
+    void signedInFeedPage() throws Exception {
+        mockMvc.perform(get(POST_CONTROLLER_BASE_PATH).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(atMost(3));
+        mockMvc.perform(get(POST_CONTROLLER_BASE_PATH).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    void laterFeedPage() throws Exception {
+        mockMvc.perform(get(POST_CONTROLLER_BASE_PATH).param("page", "1").param("size", "2")
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(atMost(3));
+    }
+}
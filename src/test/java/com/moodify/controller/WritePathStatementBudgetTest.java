@@ -0,0 +1,87 @@
+package com.moodify.controller;
+
+import com.moodify.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import java.util.Map;
+
+import static com.moodify.config.EndpointConstants.API_BASE;
+import static com.moodify.config.EndpointConstants.COMMENTS_FOR_POST_ENDPOINT;
+import static com.moodify.config.EndpointConstants.COMMENT_BY_ID_OPERATIONS_ENDPOINT;
+import static com.moodify.config.EndpointConstants.LIKES_FOR_POST_BASE_PATH;
+import static com.moodify.config.EndpointConstants.POST_BY_ID_ENDPOINT;
+import static com.moodify.config.EndpointConstants.POST_CONTROLLER_BASE_PATH;
+import static com.moodify.monitoring.SqlStatements.atMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SQL statement budgets of the write paths. Budgets of requests that insert rows include the occasional
+// nextval run when the insert starts a new block of pooled ids (by Hibernate, or by SequenceIdAllocator
+// for a like).
+class WritePathStatementBudgetTest extends IntegrationTest {
+
+    private String authorization;
+    private long postId;
+
+    @BeforeEach
+    void createUserAndPost() throws Exception {
+        authorization = newUser();
+        postId = newPost(authorization);
+    }
+
+    @Test
+    void createPost() throws Exception {
+        mockMvc.perform(json(post(POST_CONTROLLER_BASE_PATH), Map.of("content", "budget post"))
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    void updatePost() throws Exception {
+        mockMvc.perform(json(put(POST_CONTROLLER_BASE_PATH + POST_BY_ID_ENDPOINT, postId), Map.of("content", "updated"))
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    void deletePost() throws Exception {
+        mockMvc.perform(post(LIKES_FOR_POST_BASE_PATH, postId).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk());
+        mockMvc.perform(json(post(API_BASE + COMMENTS_FOR_POST_ENDPOINT, postId), Map.of("content", "comment"))
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(delete(POST_CONTROLLER_BASE_PATH + POST_BY_ID_ENDPOINT, postId).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(atMost(4));
+    }
+
+    @Test
+    void likeAndUnlike() throws Exception {
+        mockMvc.perform(post(LIKES_FOR_POST_BASE_PATH, postId).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+        mockMvc.perform(delete(LIKES_FOR_POST_BASE_PATH, postId).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    void createAndDeleteComment() throws Exception {
+        String body = mockMvc.perform(json(post(API_BASE + COMMENTS_FOR_POST_ENDPOINT, postId), Map.of("content", "comment"))
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andExpect(atMost(3))
+                .andReturn().getResponse().getContentAsString();
+        long commentId = read(body).get("id").asLong();
+
+        mockMvc.perform(delete(API_BASE + COMMENT_BY_ID_OPERATIONS_ENDPOINT, commentId).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+}
@@ -0,0 +1,36 @@
+package com.moodify.monitoring;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Test helpers built on SqlStatementCounter
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    // The statements Hibernate runs for the action on the calling thread
+    public static SqlStatementCounter.Statements capture(Runnable action) {
+        SqlStatementCounter.Statements statements = SqlStatementCounter.start();
+        try {
+            action.run();
+        } finally {
+            SqlStatementCounter.stop();
+        }
+        return statements;
+    }
+
+    // Fails a MockMvc request that ran more than budget statements, as counted by SqlStatementBudgetFilter.
+    // Needs moodify.app.sqlBudget.exposeHeader=true, which the test profile sets.
+    public static ResultMatcher atMost(int budget) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlStatementBudgetFilter.STATEMENT_COUNT_HEADER);
+            assertNotNull(header, "No " + SqlStatementBudgetFilter.STATEMENT_COUNT_HEADER + " header on the response");
+            int count = Integer.parseInt(header);
+            assertTrue(count <= budget, () -> result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                    + " ran " + count + " SQL statements, budget " + budget);
+        };
+    }
+}
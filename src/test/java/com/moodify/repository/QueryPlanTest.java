@@ -0,0 +1,155 @@
+package com.moodify.repository;
+
+import com.moodify.IntegrationTest;
+import com.moodify.TestDatabase;
+import com.moodify.monitoring.SqlStatements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// EXPLAINs the SQL Hibernate generates for the hot read paths and fails on a Seq Scan.
+// The tables are first filled with enough rows and analyzed that, as in production, the planner only
+// reads a whole table when no index fits the query. Each query is explained with the parameter values
+// given here, bound in the order of the ? markers in the generated SQL.
+class QueryPlanTest extends IntegrationTest {
+
+    private static final int USERS = 5_000;
+    private static final int POSTS = 50_000;
+    private static final int LIKES = 100_000;
+    private static final int COMMENTS = 50_000;
+
+    private static boolean seeded;
+    private static long userId;
+    private static long postId;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Once per JVM; runs after the application context (and so the migrations)
+    @BeforeEach
+    void seed() throws SQLException {
+        synchronized (QueryPlanTest.class) {
+            if (seeded) {
+                return;
+            }
+            try (Connection connection = TestDatabase.get().connect();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO users (username, email, password, enabled, created_at) " +
+                        "SELECT 'plan-user-' || i, 'plan-user-' || i || '@test.moodify', 'x', true, now() " +
+                        "FROM generate_series(1, " + USERS + ") i");
+                // Rows are picked by number from these, so that the inserts below can join on them
+                statement.execute("CREATE TEMP TABLE plan_users AS " +
+                        "SELECT row_number() OVER (ORDER BY id) - 1 AS n, id FROM users WHERE username LIKE 'plan-user-%'");
+                statement.execute("INSERT INTO posts (content, created_at, user_id) " +
+                        "SELECT 'plan post ' || i, now() - i * interval '1 minute', u.id " +
+                        "FROM generate_series(1, " + POSTS + ") i JOIN plan_users u ON u.n = i % " + USERS);
+                statement.execute("CREATE TEMP TABLE plan_posts AS " +
+                        "SELECT row_number() OVER (ORDER BY id) - 1 AS n, id FROM posts WHERE content LIKE 'plan post %'");
+                statement.execute("INSERT INTO likes (created_at, user_id, post_id) " +
+                        "SELECT now(), u.id, p.id " + randomPairs(LIKES) +
+                        "ON CONFLICT (user_id, post_id) DO NOTHING");
+                statement.execute("INSERT INTO comments (content, created_at, user_id, post_id) " +
+                        "SELECT 'plan comment', now(), u.id, p.id " + randomPairs(COMMENTS));
+                statement.execute("ANALYZE users, posts, likes, comments");
+                try (ResultSet ids = statement.executeQuery(
+                        "SELECT (SELECT id FROM plan_users WHERE n = 0), (SELECT id FROM plan_posts WHERE n = " + POSTS / 2 + ")")) {
+                    ids.next();
+                    userId = ids.getLong(1);
+                    postId = ids.getLong(2);
+                }
+            }
+            seeded = true;
+        }
+    }
+
+    // FROM clause of count random (user, post) pairs
+    private static String randomPairs(int count) {
+        return "FROM (SELECT floor(random() * " + USERS + ") AS user_n, floor(random() * " + POSTS + ") AS post_n " +
+                "FROM generate_series(1, " + count + ")) pair " +
+                "JOIN plan_users u ON u.n = pair.user_n JOIN plan_posts p ON p.n = pair.post_n ";
+    }
+
+    @Test
+    void feedPagesUseAnIndex() throws SQLException {
+        assertNoSeqScan(() -> postRepository.findPostRows(PageRequest.of(2, 12, Sort.by(Sort.Direction.DESC, "createdAt"))),
+                24, 12);
+        assertNoSeqScan(() -> postRepository.findPostRowsFirstPage(Limit.of(13)), 13);
+        LocalDateTime position = LocalDateTime.now().minusDays(10);
+        assertNoSeqScan(() -> postRepository.findPostRowsBefore(position, postId, Limit.of(13)), position, postId, 13);
+    }
+
+    @Test
+    void singlePostUsesAnIndex() throws SQLException {
+        assertNoSeqScan(() -> postRepository.findPostRowById(postId), postId);
+    }
+
+    @Test
+    void likeLookupsUseAnIndex() throws SQLException {
+        assertNoSeqScan(() -> likeRepository.findPostIdsLikedByUser(userId, List.of(postId, postId + 1, postId + 2)),
+                userId, postId, postId + 1, postId + 2);
+        assertNoSeqScan(() -> likeRepository.existsByUserIdAndPostId(userId, postId), userId, postId, 1);
+        assertNoSeqScan(() -> likeRepository.countByPostId(postId), postId);
+    }
+
+    @Test
+    void commentPagesUseAnIndex() throws SQLException {
+        assertNoSeqScan(() -> commentRepository.findRowsByPostId(postId, PageRequest.of(0, 20)), postId, 20);
+        assertNoSeqScan(() -> commentRepository.countByPostId(postId), postId);
+        assertNoSeqScan(() -> commentRepository.findThreadFirstPage(postId, Limit.of(21)), postId, 21);
+    }
+
+    @Test
+    void userLookupsUseAnIndex() throws SQLException {
+        assertNoSeqScan(() -> userRepository.findEnabledById(userId), userId);
+        assertNoSeqScan(() -> userRepository.existsByUsername("plan-user-1"), "plan-user-1", 1);
+    }
+
+    private static void assertNoSeqScan(Runnable query, Object... parameters) throws SQLException {
+        Set<String> statements = SqlStatements.capture(query).distinct();
+        assertEquals(1, statements.size(), () -> "Expected one statement, got " + statements);
+        String sql = statements.iterator().next();
+        String plan = explain(sql, parameters);
+        assertFalse(plan.contains("Seq Scan"), () -> "Sequential scan in the plan of\n" + sql + "\n\n" + plan);
+    }
+
+    private static String explain(String sql, Object... parameters) throws SQLException {
+        try (Connection connection = TestDatabase.get().connect();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            assertEquals(explain.getParameterMetaData().getParameterCount(), parameters.length,
+                    () -> "Parameters do not match the markers of\n" + sql);
+            for (int i = 0; i < parameters.length; i++) {
+                explain.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.moodify.service;
+
+import com.moodify.IntegrationTest;
+import com.moodify.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.moodify.config.EndpointConstants.API_BASE;
+import static com.moodify.config.EndpointConstants.COMMENTS_FOR_POST_ENDPOINT;
+import static com.moodify.config.EndpointConstants.COMMENT_BY_ID_OPERATIONS_ENDPOINT;
+import static com.moodify.config.EndpointConstants.LIKES_FOR_POST_BASE_PATH;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A post delete racing a comment delete or an unlike on the same post. The post delete locks the post row,
+// then waits until the other request is blocked on a lock before deleting the likes and comments: if that
+// request had deleted its like or comment row before asking for the post row, the two would deadlock.
+// Locking the post first, it waits for the post delete and then finds nothing left to delete (404).
+class PostDeleteConcurrencyTest extends IntegrationTest {
+
+    private static final String WAITING_FOR_LOCK_SQL =
+            "SELECT count(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock'";
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private String authorization;
+    private long postId;
+    private UserPrincipal author;
+
+    @BeforeEach
+    void createUserAndPost() throws Exception {
+        authorization = newUser();
+        postId = newPost(authorization);
+        author = jdbcTemplate.queryForObject(
+                "SELECT u.id, u.username FROM posts p JOIN users u ON u.id = p.user_id WHERE p.id = ?",
+                (row, n) -> new UserPrincipal(row.getLong(1), row.getString(2), "", true, List.of("ROLE_USER")),
+                postId);
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deletePostAgainstDeleteComment() throws Exception {
+        String body = mockMvc.perform(json(post(API_BASE + COMMENTS_FOR_POST_ENDPOINT, postId), Map.of("content", "comment"))
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long commentId = read(body).get("id").asLong();
+
+        MvcResult result = deletePostWhile(() -> mockMvc.perform(delete(API_BASE + COMMENT_BY_ID_OPERATIONS_ENDPOINT, commentId)
+                .header(HttpHeaders.AUTHORIZATION, authorization)));
+
+        assertEquals(404, result.getResponse().getStatus());
+    }
+
+    @Test
+    void deletePostAgainstUnlike() throws Exception {
+        mockMvc.perform(post(LIKES_FOR_POST_BASE_PATH, postId).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk());
+
+        MvcResult result = deletePostWhile(() -> mockMvc.perform(delete(LIKES_FOR_POST_BASE_PATH, postId)
+                .header(HttpHeaders.AUTHORIZATION, authorization)));
+
+        assertEquals(404, result.getResponse().getStatus());
+    }
+
+    // Runs deletePost in a transaction that holds the post row lock while the request starts and blocks
+    private MvcResult deletePostWhile(Callable<ResultActions> request) throws Exception {
+        Future<MvcResult> pending = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.queryForObject("SELECT id FROM posts WHERE id = ? FOR UPDATE", Long.class, postId);
+            Future<MvcResult> started = executor.submit(() -> request.call().andReturn());
+            awaitLockWait();
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(author, null, author.getAuthorities()));
+            try {
+                postService.deletePost(postId);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+            return started;
+        });
+        return pending.get(30, SECONDS);
+    }
+
+    // Polls from another thread: this one's statements would run on the transaction's connection
+    private void awaitLockWait() {
+        try {
+            executor.submit(() -> {
+                long deadline = System.nanoTime() + SECONDS.toNanos(10);
+                while (jdbcTemplate.queryForObject(WAITING_FOR_LOCK_SQL, Long.class) == 0) {
+                    if (System.nanoTime() > deadline) {
+                        throw new IllegalStateException("The concurrent request never waited for a lock");
+                    }
+                    Thread.sleep(10);
+                }
+                return null;
+            }).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}